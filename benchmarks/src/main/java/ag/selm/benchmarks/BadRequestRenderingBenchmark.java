@@ -0,0 +1,56 @@
+package ag.selm.benchmarks;
+
+import ag.selm.catalogue.controller.BadRequestControllerAdvice;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindException;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.MapBindingResult;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+//ответ 400 на некорректный товар: сборка ProblemDetail с локализованным заголовком и его сериализация
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BadRequestRenderingBenchmark {
+
+    BadRequestControllerAdvice controllerAdvice;
+
+    ObjectMapper objectMapper;
+
+    BindException exception;
+
+    Locale locale = Locale.of("ru");
+
+    @Setup
+    public void setUp() {
+        this.controllerAdvice = new BadRequestControllerAdvice(Fixtures.messageSource());
+        this.objectMapper = Fixtures.objectMapper();
+
+        this.exception = new BindException(new MapBindingResult(Map.of(), "payload"));
+        this.exception.addError(new FieldError("payload", "title",
+                "Название товара должно быть от 3 до 50 символов"));
+        this.exception.addError(new FieldError("payload", "details",
+                "Описание товара должно быть не более 1000 символов"));
+    }
+
+    @Benchmark
+    public ResponseEntity<ProblemDetail> handleBindException() {
+        return this.controllerAdvice.handleBindException(this.exception, this.locale);
+    }
+
+    @Benchmark
+    public byte[] handleAndSerializeBindException() throws JsonProcessingException {
+        return this.objectMapper.writeValueAsBytes(
+                this.controllerAdvice.handleBindException(this.exception, this.locale).getBody());
+    }
+}
@@ -0,0 +1,58 @@
+package ag.selm.benchmarks;
+
+import ag.selm.catalogue.entity.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+//общие данные и компоненты, настроенные так же, как в catalogue-service
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    //данные детерминированы, чтобы результаты разных запусков были сравнимы
+    static List<Product> products(int count) {
+        return IntStream.rangeClosed(1, count)
+                .mapToObj(i -> new Product(i, "Товар №%d".formatted(i),
+                        "Описание товара №%d, ".formatted(i).repeat(10), (long) i))
+                .toList();
+    }
+
+    //Jackson2ObjectMapperBuilder, как и Spring Boot, регистрирует примесь для ProblemDetail
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    //без контекста персистентности: сущности репозиториев в памяти не управляются, поэтому flush, clear
+    //и detach ничего не делают; остальные методы сервисом не вызываются
+    static EntityManager detachedEntityManager() {
+        Set<String> noOpMethods = Set.of("flush", "clear", "detach");
+        return (EntityManager) Proxy.newProxyInstance(EntityManager.class.getClassLoader(),
+                new Class<?>[]{EntityManager.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "DetachedEntityManager";
+                    default -> {
+                        if (noOpMethods.contains(method.getName())) {
+                            yield null;
+                        }
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    //messages.properties из catalogue-service
+    static ResourceBundleMessageSource messageSource() {
+        var messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("messages");
+        messageSource.setDefaultEncoding("UTF-8");
+        return messageSource;
+    }
+}
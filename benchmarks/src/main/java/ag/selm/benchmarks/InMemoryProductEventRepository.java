@@ -0,0 +1,108 @@
+package ag.selm.benchmarks;
+
+import ag.selm.catalogue.entity.ProductEvent;
+import ag.selm.catalogue.repository.ProductEventRepository;
+import org.springframework.data.domain.Pageable;
+
+import java.util.*;
+import java.util.stream.StreamSupport;
+
+//заглушка журнала событий в памяти: события сохраняются, как в t_product_event, но никуда не рассылаются
+class InMemoryProductEventRepository implements ProductEventRepository {
+
+    private final NavigableMap<Long, ProductEvent> events = new TreeMap<>();
+
+    private long lastId;
+
+    @Override
+    public List<ProductEvent> findAllByOrderById(Pageable pageable) {
+        return this.events.values().stream()
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+
+    @Override
+    public int deleteAllByIdIn(Collection<Long> ids) {
+        int deleted = 0;
+        for (Long id : ids) {
+            if (this.events.remove(id) != null) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    @Override
+    public boolean tryAdvisoryTransactionLock(long key) {
+        return true;
+    }
+
+    @Override
+    public <S extends ProductEvent> S save(S entity) {
+        if (entity.getId() == null) {
+            entity.setId(++this.lastId);
+        }
+        this.events.put(entity.getId(), entity);
+        return entity;
+    }
+
+    @Override
+    public <S extends ProductEvent> Iterable<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        entities.forEach(entity -> saved.add(this.save(entity)));
+        return saved;
+    }
+
+    @Override
+    public Optional<ProductEvent> findById(Long id) {
+        return Optional.ofNullable(this.events.get(id));
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return this.events.containsKey(id);
+    }
+
+    @Override
+    public Iterable<ProductEvent> findAll() {
+        return List.copyOf(this.events.values());
+    }
+
+    @Override
+    public Iterable<ProductEvent> findAllById(Iterable<Long> ids) {
+        return StreamSupport.stream(ids.spliterator(), false)
+                .map(this.events::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    public long count() {
+        return this.events.size();
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        this.events.remove(id);
+    }
+
+    @Override
+    public void delete(ProductEvent entity) {
+        this.events.remove(entity.getId());
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        ids.forEach(this.events::remove);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends ProductEvent> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        this.events.clear();
+    }
+}
@@ -0,0 +1,193 @@
+package ag.selm.benchmarks;
+
+import ag.selm.catalogue.entity.Product;
+import ag.selm.catalogue.entity.ProductSummary;
+import ag.selm.catalogue.repository.ProductRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+//заглушка репозитория в памяти: замеряется стоимость кода сервиса без базы данных;
+//ilike эмулируется поиском подстроки без учета регистра
+class InMemoryProductRepository implements ProductRepository {
+
+    private final NavigableMap<Integer, Product> products = new TreeMap<>();
+
+    InMemoryProductRepository(List<Product> products) {
+        products.forEach(product -> this.products.put(product.getId(), product));
+    }
+
+    @Override
+    public Iterable<Product> findAllByTitleLikeIgnoreCase(String filter) {
+        return this.products.values().stream().filter(titleLike(filter)).toList();
+    }
+
+    @Override
+    public List<Product> findAllByIdGreaterThanOrderById(int after, Pageable pageable) {
+        return this.products.tailMap(after, false).values().stream()
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+
+    @Override
+    public List<Product> findAllByTitleLikeIgnoreCase(String filter, int after, Pageable pageable) {
+        return this.products.tailMap(after, false).values().stream()
+                .filter(titleLike(filter))
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+
+    @Override
+    public List<ProductSummary> findAllSummariesByIdGreaterThan(int after, Pageable pageable) {
+        return this.findAllByIdGreaterThanOrderById(after, pageable).stream()
+                .map(product -> new ProductSummary(product.getId(), product.getTitle()))
+                .toList();
+    }
+
+    @Override
+    public Optional<ProductSummary> findSummaryById(int id) {
+        return Optional.ofNullable(this.products.get(id))
+                .map(product -> new ProductSummary(product.getId(), product.getTitle()));
+    }
+
+    @Override
+    public List<ProductSummary> findAllSummariesByTitleLikeIgnoreCase(String filter, int after, Pageable pageable) {
+        return this.findAllByTitleLikeIgnoreCase(filter, after, pageable).stream()
+                .map(product -> new ProductSummary(product.getId(), product.getTitle()))
+                .toList();
+    }
+
+    @Override
+    public Stream<Product> streamAllByOrderById() {
+        return this.products.values().stream();
+    }
+
+    @Override
+    public Stream<Product> streamAllByTitleLikeIgnoreCase(String filter) {
+        return this.products.values().stream().filter(titleLike(filter));
+    }
+
+    @Override
+    public Slice<Product> searchAllByQuery(String query, Pageable pageable) {
+        String word = query.toLowerCase(Locale.ROOT);
+        List<Product> found = this.products.values().stream()
+                .filter(product -> product.getTitle().toLowerCase(Locale.ROOT).contains(word)
+                        || product.getDetails() != null && product.getDetails().toLowerCase(Locale.ROOT).contains(word))
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize() + 1L)
+                .toList();
+        boolean hasNext = found.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? found.subList(0, pageable.getPageSize()) : found, pageable, hasNext);
+    }
+
+    @Override
+    public long findChangesCount() {
+        //бенчмарки читают каталог и метку актуальности не используют
+        return 0;
+    }
+
+    @Override
+    public long countByTitleLikeIgnoreCase(String filter) {
+        return this.products.values().stream().filter(titleLike(filter)).count();
+    }
+
+    @Override
+    public int updateTitleAndDetailsById(int id, String title, String details) {
+        Product product = this.products.get(id);
+        if (product == null) {
+            return 0;
+        }
+        product.setTitle(title);
+        product.setDetails(details);
+        return 1;
+    }
+
+    @Override
+    public int deleteProductById(int id) {
+        return this.products.remove(id) == null ? 0 : 1;
+    }
+
+    @Override
+    public <S extends Product> S save(S entity) {
+        if (entity.getId() == null) {
+            entity.setId(this.products.isEmpty() ? 1 : this.products.lastKey() + 1);
+        }
+        this.products.put(entity.getId(), entity);
+        return entity;
+    }
+
+    @Override
+    public <S extends Product> Iterable<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        entities.forEach(entity -> saved.add(this.save(entity)));
+        return saved;
+    }
+
+    @Override
+    public Optional<Product> findById(Integer id) {
+        return Optional.ofNullable(this.products.get(id));
+    }
+
+    @Override
+    public boolean existsById(Integer id) {
+        return this.products.containsKey(id);
+    }
+
+    @Override
+    public Iterable<Product> findAll() {
+        return List.copyOf(this.products.values());
+    }
+
+    @Override
+    public Iterable<Product> findAllById(Iterable<Integer> ids) {
+        return StreamSupport.stream(ids.spliterator(), false)
+                .map(this.products::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    public long count() {
+        return this.products.size();
+    }
+
+    @Override
+    public void deleteById(Integer id) {
+        this.products.remove(id);
+    }
+
+    @Override
+    public void delete(Product entity) {
+        this.products.remove(entity.getId());
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Integer> ids) {
+        ids.forEach(this.products::remove);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Product> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        this.products.clear();
+    }
+
+    //шаблон вида %фильтр% с экранированными \%, \_ и \\
+    private static Predicate<Product> titleLike(String filter) {
+        String needle = filter.substring(1, filter.length() - 1)
+                .replace("\\%", "%")
+                .replace("\\_", "_")
+                .replace("\\\\", "\\")
+                .toLowerCase(Locale.ROOT);
+        return product -> product.getTitle().toLowerCase(Locale.ROOT).contains(needle);
+    }
+}
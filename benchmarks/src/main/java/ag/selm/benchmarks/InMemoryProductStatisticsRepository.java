@@ -0,0 +1,27 @@
+package ag.selm.benchmarks;
+
+import ag.selm.catalogue.repository.PgProductStatisticsRepository;
+import ag.selm.catalogue.repository.ProductRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+//заглушка статистики PostgreSQL: оценки заменяются точным подсчетом по репозиторию в памяти,
+//JdbcTemplate без источника данных не используется
+class InMemoryProductStatisticsRepository extends PgProductStatisticsRepository {
+
+    private final ProductRepository productRepository;
+
+    InMemoryProductStatisticsRepository(ProductRepository productRepository) {
+        super(new JdbcTemplate(), Fixtures.objectMapper());
+        this.productRepository = productRepository;
+    }
+
+    @Override
+    public long estimateCount() {
+        return this.productRepository.count();
+    }
+
+    @Override
+    public long estimateCount(String filter) {
+        return this.productRepository.countByTitleLikeIgnoreCase(filter);
+    }
+}
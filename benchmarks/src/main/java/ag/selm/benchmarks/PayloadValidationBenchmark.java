@@ -0,0 +1,61 @@
+package ag.selm.benchmarks;
+
+import ag.selm.catalogue.controller.payload.NewProductPayload;
+import ag.selm.catalogue.controller.payload.UpdateProductPayload;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+//проверка тел запросов создания и изменения товара; сообщения об ошибках
+//интерполируются через messages.properties, как в приложении
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PayloadValidationBenchmark {
+
+    LocalValidatorFactoryBean validatorFactory;
+
+    Validator validator;
+
+    NewProductPayload validNewPayload = new NewProductPayload("Новый товар", "Описание нового товара");
+
+    //две ошибки: короткое название и слишком длинное описание
+    NewProductPayload invalidNewPayload = new NewProductPayload("  ", "д".repeat(1001));
+
+    UpdateProductPayload validUpdatePayload = new UpdateProductPayload("Измененный товар", "Описание");
+
+    @Setup
+    public void setUp() {
+        this.validatorFactory = new LocalValidatorFactoryBean();
+        this.validatorFactory.setValidationMessageSource(Fixtures.messageSource());
+        this.validatorFactory.afterPropertiesSet();
+        this.validator = this.validatorFactory;
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<NewProductPayload>> validateValidNewProductPayload() {
+        return this.validator.validate(this.validNewPayload);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<NewProductPayload>> validateInvalidNewProductPayload() {
+        return this.validator.validate(this.invalidNewPayload);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UpdateProductPayload>> validateValidUpdateProductPayload() {
+        return this.validator.validate(this.validUpdatePayload);
+    }
+}
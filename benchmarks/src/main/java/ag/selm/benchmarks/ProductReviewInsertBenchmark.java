@@ -0,0 +1,91 @@
+package ag.selm.benchmarks;
+
+import ag.selm.feedback.service.UuidV7Generator;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import org.bson.Document;
+import org.bson.UuidRepresentation;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.IdGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//скорость записи отзывов в product_review со случайными и упорядоченными по времени _id.
+//нужен запущенный MongoDB (см. README), адрес задается -Dbenchmarks.mongodb.uri;
+//разница проявляется, когда индексы _id и (productId, _id) перестают помещаться в кеш WiredTiger,
+//поэтому коллекция заранее заполняется
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@Threads(4)
+public class ProductReviewInsertBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"random", "v7"})
+    String ids;
+
+    @Param({"1000000"})
+    int preloaded;
+
+    MongoClient mongoClient;
+
+    MongoCollection<Document> collection;
+
+    IdGenerator idGenerator;
+
+    @Setup
+    public void setUp() {
+        this.mongoClient = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(
+                        System.getProperty("benchmarks.mongodb.uri", "mongodb://localhost:27017")))
+                .uuidRepresentation(UuidRepresentation.STANDARD)
+                .build());
+        this.idGenerator = this.ids.equals("v7") ? new UuidV7Generator() : UUID::randomUUID;
+
+        this.collection = this.mongoClient.getDatabase("benchmarks").getCollection("product_review_" + this.ids);
+        this.collection.drop();
+        this.collection.createIndex(Indexes.ascending("productId", "_id"),
+                new IndexOptions().name("product_review_product_id_id"));
+        for (int i = 0; i < this.preloaded; i += 1000) {
+            this.collection.insertMany(this.reviews(1000));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.collection.drop();
+        this.mongoClient.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void insertReviews() {
+        this.collection.insertMany(this.reviews(BATCH_SIZE));
+    }
+
+    private List<Document> reviews(int count) {
+        var random = ThreadLocalRandom.current();
+        List<Document> reviews = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            reviews.add(new Document("_id", this.idGenerator.generateId())
+                    .append("productId", random.nextInt(1, 10_000))
+                    .append("rating", random.nextInt(1, 6))
+                    .append("review", "Отзыв о товаре")
+                    .append("userId", "user-%d".formatted(random.nextInt(100_000))));
+        }
+        return reviews;
+    }
+}
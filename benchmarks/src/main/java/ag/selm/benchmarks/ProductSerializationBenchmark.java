@@ -0,0 +1,39 @@
+package ag.selm.benchmarks;
+
+import ag.selm.catalogue.entity.Product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//сериализация страницы товаров, как в ответе GET /catalogue-api/products
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ProductSerializationBenchmark {
+
+    @Param({"1", "20", "100", "1000"})
+    int size;
+
+    List<Product> products;
+
+    ObjectWriter writer;
+
+    @Setup
+    public void setUp() {
+        this.products = Fixtures.products(this.size);
+        this.writer = Fixtures.objectMapper().writerFor(new TypeReference<List<Product>>() {
+        });
+    }
+
+    @Benchmark
+    public byte[] serializeProducts() throws JsonProcessingException {
+        return this.writer.writeValueAsBytes(this.products);
+    }
+}
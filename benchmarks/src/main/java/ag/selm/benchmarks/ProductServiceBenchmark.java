@@ -0,0 +1,54 @@
+package ag.selm.benchmarks;
+
+import ag.selm.catalogue.entity.Product;
+import ag.selm.catalogue.service.DefaultProductService;
+import ag.selm.catalogue.service.ProductTitleIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//DefaultProductService.findAllProducts над репозиторием в памяти: экранирование фильтра,
+//выбор запроса, счетчики Micrometer; транзакции и кеш Spring здесь не участвуют
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ProductServiceBenchmark {
+
+    @Param({"1000", "10000"})
+    int catalogueSize;
+
+    @Param({"20", "100"})
+    int limit;
+
+    DefaultProductService productService;
+
+    @Setup
+    public void setUp() {
+        var productRepository = new InMemoryProductRepository(Fixtures.products(this.catalogueSize));
+        this.productService = new DefaultProductService(productRepository, new InMemoryProductEventRepository(),
+                Fixtures.detachedEntityManager(), new SimpleMeterRegistry(), new ProductTitleIndex(),
+                new InMemoryProductStatisticsRepository(productRepository));
+    }
+
+    @Benchmark
+    public List<Product> findAllProductsWithoutFilter() {
+        return this.productService.findAllProducts(null, 0, this.limit);
+    }
+
+    //фильтр совпадает с товарами, номер которых начинается с 1, страница набирается из начала каталога
+    @Benchmark
+    public List<Product> findAllProductsWithFilter() {
+        return this.productService.findAllProducts("№1", 0, this.limit);
+    }
+
+    //фильтр не совпадает ни с одним товаром: просматривается весь каталог, как при ilike без индекса
+    @Benchmark
+    public List<Product> findAllProductsWithMissingFilter() {
+        return this.productService.findAllProducts("нет такого", 0, this.limit);
+    }
+}
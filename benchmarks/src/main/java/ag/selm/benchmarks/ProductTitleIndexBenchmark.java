@@ -0,0 +1,41 @@
+package ag.selm.benchmarks;
+
+import ag.selm.catalogue.entity.ProductSummary;
+import ag.selm.catalogue.service.ProductTitleIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+//подсказки по префиксу из индекса названий; цель - меньше миллисекунды на запрос
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ProductTitleIndexBenchmark {
+
+    @Param({"10000", "1000000"})
+    int catalogueSize;
+
+    //короткий префикс совпадает со всем каталогом, длинный - с единицами товаров
+    @Param({"т", "товар №12345"})
+    String prefix;
+
+    ProductTitleIndex index;
+
+    @Setup
+    public void setUp() {
+        this.index = new ProductTitleIndex();
+        this.index.replaceAll(IntStream.rangeClosed(1, this.catalogueSize)
+                .mapToObj(i -> new ProductSummary(i, "Товар №%d".formatted(i)))
+                .toList());
+    }
+
+    @Benchmark
+    public List<ProductSummary> suggest() {
+        return this.index.suggest(this.prefix, 10);
+    }
+}
@@ -0,0 +1,31 @@
+package ag.selm.benchmarks;
+
+import ag.selm.feedback.service.UuidV7Generator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+//выдача идентификаторов из нескольких потоков: UUID.randomUUID берет байты из общего SecureRandom,
+//UuidV7Generator - одна операция CAS и ThreadLocalRandom
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(8)
+public class UuidGeneratorBenchmark {
+
+    UuidV7Generator uuidV7Generator = new UuidV7Generator();
+
+    @Benchmark
+    public UUID randomUuid() {
+        return UUID.randomUUID();
+    }
+
+    @Benchmark
+    public UUID uuidV7() {
+        return this.uuidV7Generator.generateId();
+    }
+}
@@ -0,0 +1,50 @@
+package ag.selm.catalogue.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executor;
+
+@Configuration
+@EnableCaching
+public class CacheBeans {
+
+    public static final String PRODUCTS_CACHE = "products";
+
+    @Bean
+    //при spring.cache.type=none (тесты) менеджер кешей создаст автоконфигурация Spring Boot
+    @ConditionalOnProperty(name = "spring.cache.type", havingValue = "caffeine", matchIfMissing = true)
+    public CacheManager cacheManager(
+            @Value("${selmag.cache.products.spec:maximumSize=10000,expireAfterWrite=5m,recordStats}") String productsSpec,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreadsEnabled,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+            ObjectProvider<Executor> applicationTaskExecutor) {
+        var cacheManager = new CaffeineCacheManager(PRODUCTS_CACHE);
+        var caffeine = Caffeine.from(productsSpec);
+        if (virtualThreadsEnabled) {
+            //@Cacheable(sync = true) в синхронном кеше загружает товар внутри ConcurrentHashMap.compute,
+            //то есть в synchronized-блоке, и виртуальный поток закрепляется на все время запроса к базе данных;
+            //асинхронный кеш кладет в таблицу только CompletableFuture, загрузка идет в applicationTaskExecutor
+            //(виртуальные потоки), а ожидающие потоки паркуются на future без закрепления
+            caffeine.executor(applicationTaskExecutor.getIfAvailable(() -> runnable -> Thread.ofVirtual().start(runnable)));
+            cacheManager.setAsyncCacheMode(true);
+        }
+        cacheManager.setCaffeine(caffeine);
+        //отсутствующий товар тоже кешируется, создание товара вытесняет эту запись через @CacheEvict
+        cacheManager.setAllowNullValues(true);
+
+        //put/evict выполняются после фиксации транзакции, иначе параллельный запрос может
+        //успеть загрузить в кеш еще не измененный товар
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,71 @@
+package ag.selm.catalogue.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+//без selmag.datasource.replicas источник данных настраивает Spring Boot по spring.datasource
+@Configuration
+@ConditionalOnProperty(name = "selmag.datasource.replicas[0].url")
+@EnableConfigurationProperties(DataSourceReplicasProperties.class)
+public class DataSourceBeans {
+
+    @Bean
+    public ReadReplicaRoutingDataSource readReplicaRoutingDataSource(DataSourceProperties primaryProperties,
+                                                                     DataSourceReplicasProperties replicasProperties,
+                                                                     ObjectProvider<MeterRegistry> meterRegistry,
+                                                                     Environment environment) {
+        //пулы создаются вручную, поэтому настройки spring.datasource.hikari.* (размер пула, тайм-ауты)
+        //привязываются к ним явно, как это делает автоконфигурация Spring Boot
+        Binder binder = Binder.get(environment);
+
+        HikariDataSource primary = primaryProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("catalogue-primary");
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (DataSourceReplicasProperties.Replica replica : replicasProperties.replicas()) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replica.url())
+                    .username(replica.username())
+                    .password(replica.password())
+                    .build();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+            dataSource.setPoolName("catalogue-replica-" + replicas.size());
+            dataSource.setReadOnly(true);
+            replicas.add(dataSource);
+        }
+
+        //пулы не являются компонентами контекста, поэтому метрики hikaricp.* (тег pool) подключаются явно
+        meterRegistry.ifAvailable(registry -> {
+            primary.setMetricRegistry(registry);
+            replicas.forEach(dataSource -> dataSource.setMetricRegistry(registry));
+        });
+
+        return new ReadReplicaRoutingDataSource(primary, replicas);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadReplicaRoutingDataSource readReplicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readReplicaRoutingDataSource);
+    }
+}
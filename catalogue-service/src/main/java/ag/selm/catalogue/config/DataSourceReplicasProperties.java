@@ -0,0 +1,12 @@
+package ag.selm.catalogue.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+@ConfigurationProperties("selmag.datasource")
+public record DataSourceReplicasProperties(List<Replica> replicas) {
+
+    public record Replica(String url, String username, String password) {
+    }
+}
@@ -0,0 +1,40 @@
+package ag.selm.catalogue.config;
+
+import ag.selm.catalogue.event.ApplicationProductEventSink;
+import ag.selm.catalogue.event.CompositeProductEventSink;
+import ag.selm.catalogue.event.ProductEventSink;
+import ag.selm.catalogue.event.WebhookProductEventSink;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.web.client.RestClient;
+
+import java.net.URI;
+import java.util.List;
+
+@Configuration
+@EnableScheduling
+public class ProductEventsBeans {
+
+    @Bean
+    @ConditionalOnProperty(name = "selmag.product-events.sink", havingValue = "in-process", matchIfMissing = true)
+    public ProductEventSink applicationProductEventSink(ApplicationEventPublisher applicationEventPublisher) {
+        return new ApplicationProductEventSink(applicationEventPublisher);
+    }
+
+    //адреса остальных узлов каталога (catalogue-api/admin/products/events) или других подписчиков;
+    //журнал рассылает узел, получивший блокировку, и его собственный кеш тоже должен узнать об изменениях
+    //с других узлов, поэтому события всегда публикуются и внутри приложения
+    @Bean
+    @ConditionalOnProperty(name = "selmag.product-events.sink", havingValue = "webhook")
+    public ProductEventSink webhookProductEventSink(ApplicationEventPublisher applicationEventPublisher,
+                                                   RestClient.Builder restClientBuilder,
+                                                   @Value("${selmag.product-events.webhook.uris}") List<URI> uris) {
+        return new CompositeProductEventSink(List.of(
+                new ApplicationProductEventSink(applicationEventPublisher),
+                new WebhookProductEventSink(restClientBuilder.build(), uris)));
+    }
+}
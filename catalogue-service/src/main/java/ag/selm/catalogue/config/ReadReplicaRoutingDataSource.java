@@ -0,0 +1,78 @@
+package ag.selm.catalogue.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//транзакции только для чтения (@Transactional(readOnly = true)) направляются на реплики по кругу,
+//все остальное - на основной сервер
+//должен использоваться через LazyConnectionDataSourceProxy: признак readOnly выставляется уже после того,
+//как менеджер транзакций запросил соединение, а прокси откладывает выбор до первого запроса к базе
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final String PRIMARY = "primary";
+
+    //после записи оставшиеся чтения того же HTTP-запроса идут на основной сервер,
+    //иначе реплика с задержкой репликации не покажет только что записанные данные
+    private static final String PRIMARY_PINNED_ATTRIBUTE =
+            ReadReplicaRoutingDataSource.class.getName() + ".PRIMARY_PINNED";
+
+    private final HikariDataSource primary;
+
+    private final List<HikariDataSource> replicas;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReadReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+
+        Map<Object, Object> targetDataSources = new HashMap<>();
+        targetDataSources.put(PRIMARY, primary);
+        for (int i = 0; i < this.replicas.size(); i++) {
+            targetDataSources.put(i, this.replicas.get(i));
+        }
+        this.setTargetDataSources(targetDataSources);
+        this.setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (!this.replicas.isEmpty() && !isPinnedToPrimary()) {
+                return Math.floorMod(this.nextReplica.getAndIncrement(), this.replicas.size());
+            }
+        } else if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            pinToPrimary();
+        }
+
+        return PRIMARY;
+    }
+
+    @Override
+    public void destroy() {
+        this.replicas.forEach(HikariDataSource::close);
+        this.primary.close();
+    }
+
+    private static boolean isPinnedToPrimary() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null
+                && attributes.getAttribute(PRIMARY_PINNED_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+
+    private static void pinToPrimary() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(PRIMARY_PINNED_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+}
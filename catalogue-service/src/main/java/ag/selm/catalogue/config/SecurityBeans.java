@@ -20,12 +20,22 @@ public class SecurityBeans {
 //                        .requestMatchers(HttpMethod.POST, "/catalogue-api/products")
 //                        .hasAuthority("SCOPE_edit_catalogue")
 //
+//                        .requestMatchers(HttpMethod.POST, "/catalogue-api/products:batch")
+//                        .hasAuthority("SCOPE_edit_catalogue")
+//
+//                        .requestMatchers(HttpMethod.POST, "/catalogue-api/products:by-ids")
+//                        .hasAuthority("SCOPE_view_catalogue")
+//
 //                        .requestMatchers(HttpMethod.PATCH, "/catalogue-api/products/{productId:\\d}")
 //                        .hasAuthority("SCOPE_edit_catalogue")
 //
 //                        .requestMatchers(HttpMethod.DELETE, "/catalogue-api/products/{productId:\\d}")
 //                        .hasAuthority("SCOPE_edit_catalogue")
 //
+//                        //в том числе прием событий от других узлов: /catalogue-api/admin/products/events
+//                        .requestMatchers("/catalogue-api/admin/**")
+//                        .hasAuthority("SCOPE_edit_catalogue")
+//
 //                        .requestMatchers(HttpMethod.GET)
 //                        .hasAuthority("SCOPE_view_catalogue")
 //
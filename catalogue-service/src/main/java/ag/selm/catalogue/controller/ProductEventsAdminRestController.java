@@ -0,0 +1,29 @@
+package ag.selm.catalogue.controller;
+
+import ag.selm.catalogue.entity.ProductEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+//приемник событий от WebhookProductEventSink другого узла каталога:
+//события передаются локальным слушателям так же, как при доставке внутри приложения
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("catalogue-api/admin/products/events")
+public class ProductEventsAdminRestController {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Void> receiveEvents(@RequestBody List<ProductEvent> events) {
+        events.forEach(this.applicationEventPublisher::publishEvent);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -25,15 +25,19 @@ public class ProductRestController {
 
     private final MessageSource messageSource;
 
-    @ModelAttribute
-    public Product getProduct(@PathVariable("productId") int productId) {
-        return this.productService.findProduct(productId)
+    //товар загружается только для чтения: изменение и удаление выполняются одним запросом,
+    //отсутствие товара определяется по количеству затронутых строк
+    //при совпадении ETag с If-None-Match Spring сам ответит 304 без тела
+    @GetMapping
+    public ResponseEntity<Product> findProduct(@PathVariable("productId") int productId){
+        Product product = this.productService.findProduct(productId)
                 .orElseThrow(() -> new NoSuchElementException("catalogue.errors.product.not_found"));
-    }
 
-    @GetMapping
-    public Product findProduct(@ModelAttribute("product") Product product){
-        return product;
+        var response = ResponseEntity.ok();
+        if (product.getVersion() != null) {
+            response.eTag(String.valueOf(product.getVersion()));
+        }
+        return response.body(product);
     }
 
     @PatchMapping
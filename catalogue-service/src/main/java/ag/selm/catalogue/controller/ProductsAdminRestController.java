@@ -0,0 +1,76 @@
+package ag.selm.catalogue.controller;
+
+import ag.selm.catalogue.entity.ProductsImportReport;
+import ag.selm.catalogue.service.ProductService;
+import ag.selm.catalogue.service.ProductsBulkService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.MessageSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("catalogue-api/admin/products")
+public class ProductsAdminRestController {
+
+    public static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    private final ProductsBulkService productsBulkService;
+
+    private final ProductService productService;
+
+    private final MessageSource messageSource;
+
+    //выгрузка каталога в CSV (id, c_title, c_details) в порядке идентификаторов;
+    //since-id - последний уже полученный идентификатор для инкрементальной выгрузки
+    @GetMapping("export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(name = "since-id", defaultValue = "0") int sinceId) {
+        StreamingResponseBody body = outputStream -> this.productsBulkService.exportProducts(sinceId, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products.csv\"")
+                .body(body);
+    }
+
+    //загрузка CSV в формате выгрузки: тело запроса передается в COPY без разбора на стороне сервиса
+    @PostMapping(path = "import", consumes = "text/csv")
+    public ResponseEntity<ProductsImportReport> importProducts(InputStream inputStream, Locale locale) {
+        ProductsImportReport report = this.productsBulkService.importProducts(inputStream);
+        //загрузка уже зафиксирована; названия могли измениться у любого числа товаров
+        if (report.inserted() > 0 || report.updated() > 0) {
+            this.productService.rebuildTitleIndex();
+        }
+
+        return ResponseEntity.ok(new ProductsImportReport(report.received(), report.inserted(), report.updated(),
+                report.rejected(), report.rejectedLines().stream()
+                .map(line -> new ProductsImportReport.RejectedLine(line.line(),
+                        this.messageSource.getMessage("catalogue.products.import.errors." + line.error(),
+                                new Object[0], line.error(), locale)))
+                .toList()));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ProblemDetail> handleIllegalArgumentException(IllegalArgumentException exception,
+                                                                        Locale locale) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST,
+                this.messageSource.getMessage(exception.getMessage(), new Object[0], exception.getMessage(), locale));
+        if (exception.getCause() != null) {
+            problemDetail.setProperty("errors", List.of(exception.getCause().getMessage()));
+        }
+
+        return ResponseEntity.badRequest()
+                .body(problemDetail);
+    }
+}
@@ -0,0 +1,77 @@
+package ag.selm.catalogue.controller;
+
+import ag.selm.catalogue.controller.payload.NewProductPayload;
+import ag.selm.catalogue.controller.payload.ProductBatchItemResult;
+import ag.selm.catalogue.entity.Product;
+import ag.selm.catalogue.service.ProductService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.MessageSource;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+@RestController
+@RequiredArgsConstructor
+//отдельный контроллер: путь products:batch нельзя получить из префикса catalogue-api/products
+@RequestMapping("catalogue-api")
+public class ProductsBatchRestController {
+
+    private final ProductService productService;
+
+    private final Validator validator;
+
+    private final MessageSource messageSource;
+
+    //несколько товаров по идентификаторам в теле запроса, когда список не помещается в URI
+    @PostMapping(path = "products:by-ids", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public List<Product> findProductsByIds(@RequestBody Set<Integer> ids) {
+        return this.productService.findProductsByIds(ids);
+    }
+
+    //каждый товар проверяется отдельно: некорректные отклоняются с ошибками,
+    //корректные создаются одной транзакцией
+    @PostMapping(path = "products:batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ProductBatchItemResult>> createProducts(@RequestBody List<NewProductPayload> payloads,
+                                                                       Locale locale) {
+        ProductBatchItemResult[] results = new ProductBatchItemResult[payloads.size()];
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        List<Product> products = new ArrayList<>();
+
+        for (int i = 0; i < payloads.size(); i++) {
+            NewProductPayload payload = payloads.get(i);
+            List<String> errors = payload == null
+                    ? List.of(this.messageSource.getMessage("catalogue.products.batch.errors.payload_is_null",
+                            new Object[0], "catalogue.products.batch.errors.payload_is_null", locale))
+                    : this.validator.validate(payload).stream()
+                            .map(ConstraintViolation::getMessage)
+                            .toList();
+
+            if (errors.isEmpty()) {
+                acceptedIndexes.add(i);
+                products.add(new Product(null, payload.title(), payload.details()));
+            } else {
+                results[i] = new ProductBatchItemResult(i, null, errors);
+            }
+        }
+
+        if (!products.isEmpty()) {
+            List<Product> createdProducts = this.productService.createProducts(products);
+            for (int i = 0; i < createdProducts.size(); i++) {
+                int index = acceptedIndexes.get(i);
+                results[index] = new ProductBatchItemResult(index, createdProducts.get(i).getId(), List.of());
+            }
+        }
+
+        return ResponseEntity.ok(List.of(results));
+    }
+}
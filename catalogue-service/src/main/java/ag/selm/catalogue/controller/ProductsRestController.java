@@ -2,35 +2,150 @@ package ag.selm.catalogue.controller;
 
 import ag.selm.catalogue.controller.payload.NewProductPayload;
 import ag.selm.catalogue.entity.Product;
+import ag.selm.catalogue.entity.ProductSummary;
+import ag.selm.catalogue.entity.ProductsCount;
+import ag.selm.catalogue.entity.ProductsCountMode;
+import ag.selm.catalogue.entity.ProductsWatermark;
 import ag.selm.catalogue.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.validation.BindException;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.security.Principal;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntFunction;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("catalogue-api/products")
 public class ProductsRestController {
 
+    //заголовок с идентификатором, после которого начинается следующая страница
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static final String NEXT_PAGE_HEADER = "X-Next-Page";
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final int MAX_SUGGESTIONS = 20;
+
     private final ProductService productService;
 
+    private final ObjectMapper objectMapper;
+
     @GetMapping
-    public Iterable<Product> findProducts(@RequestParam(name = "filter", required = false) String filter,
-                                          Principal principal) {
+    public ResponseEntity<List<Product>> findProducts(@RequestParam(name = "filter", required = false) String filter,
+                                                      @RequestParam(name = "after", defaultValue = "0") int after,
+                                                      @RequestParam(name = "limit", defaultValue = "20") int limit,
+                                                      Principal principal,
+                                                      WebRequest webRequest) {
 //        LoggerFactory.getLogger(ProductsRestController.class).info("Principal: {}", ((JwtAuthenticationToken)principal).getToken()
 //                .getClaimAsString("email"));
 
-        return this.productService.findAllProducts(filter);
+        return this.findPage(webRequest, limit,
+                pageSize -> this.productService.findAllProducts(filter, after, pageSize), Product::getId);
+    }
+
+    //краткое представление списка (id и title) для страниц со списком товаров, описание не читается из базы
+    @GetMapping(params = "view=summary")
+    public ResponseEntity<List<ProductSummary>> findProductSummaries(
+            @RequestParam(name = "filter", required = false) String filter,
+            @RequestParam(name = "after", defaultValue = "0") int after,
+            @RequestParam(name = "limit", defaultValue = "20") int limit,
+            WebRequest webRequest) {
+        return this.findPage(webRequest, limit,
+                pageSize -> this.productService.findAllProductSummaries(filter, after, pageSize), ProductSummary::id);
+    }
+
+    //несколько товаров по идентификаторам (ids=1,2,3); для больших наборов - POST products:by-ids
+    @GetMapping(params = "ids")
+    public List<Product> findProductsByIds(@RequestParam("ids") Set<Integer> ids) {
+        return this.productService.findProductsByIds(ids);
+    }
+
+    //подсказки для поля фильтра: товары, название которых начинается с prefix, в алфавитном порядке
+    @GetMapping("suggest")
+    public List<ProductSummary> suggestProducts(@RequestParam("prefix") String prefix,
+                                                @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        return this.productService.suggestProducts(prefix, Math.max(1, Math.min(limit, MAX_SUGGESTIONS)));
+    }
+
+    //количество товаров для интерфейса списка: EXACT - count(*), ESTIMATE - оценка планировщика,
+    //AUTO - оценка для больших выборок и точное значение для небольших
+    @GetMapping("count")
+    public ProductsCount countProducts(@RequestParam(name = "filter", required = false) String filter,
+                                       @RequestParam(name = "mode", defaultValue = "AUTO") ProductsCountMode mode) {
+        return this.productService.countProducts(filter, mode);
+    }
+
+    //товары, найденные полнотекстовым поиском, в порядке релевантности
+    @GetMapping("search")
+    public ResponseEntity<List<Product>> searchProducts(@RequestParam("q") String query,
+                                                        @RequestParam(name = "page", defaultValue = "0") int page,
+                                                        @RequestParam(name = "size", defaultValue = "20") int size) {
+        Slice<Product> products = this.productService.searchProducts(query, Math.max(0, page),
+                Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+
+        var response = ResponseEntity.ok();
+        if (products.hasNext()) {
+            response.header(NEXT_PAGE_HEADER, String.valueOf(products.getNumber() + 1));
+        }
+        return response.body(products.getContent());
+    }
+
+    //поток товаров в формате NDJSON: один товар - одна строка, без накопления всего списка в памяти
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamProducts(
+            @RequestParam(name = "filter", required = false) String filter) {
+        ObjectWriter writer = this.objectMapper.writerFor(Product.class);
+        StreamingResponseBody body = outputStream -> this.productService.streamAllProducts(filter, product -> {
+            try {
+                outputStream.write(writer.writeValueAsBytes(product));
+                outputStream.write('\n');
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private <T> ResponseEntity<List<T>> findPage(WebRequest webRequest, int limit, IntFunction<List<T>> pageFinder,
+                                                 Function<T, Integer> idExtractor) {
+        //содержимое страницы определяется параметрами запроса (они часть URI) и состоянием каталога,
+        //поэтому при неизменной метке страницу можно не читать и не сериализовать
+        ProductsWatermark watermark = this.productService.findProductsWatermark();
+        if (webRequest.checkNotModified(String.valueOf(watermark.changes()))) {
+            return null;
+        }
+
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<T> items = pageFinder.apply(pageSize);
+
+        var response = ResponseEntity.ok();
+        if (items.size() == pageSize) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(idExtractor.apply(items.get(items.size() - 1))));
+        }
+        return response.body(items);
     }
 
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
@@ -0,0 +1,7 @@
+package ag.selm.catalogue.controller.payload;
+
+import java.util.List;
+
+//результат создания одного товара из пакета: либо идентификатор созданного товара, либо ошибки валидации
+public record ProductBatchItemResult(int index, Integer productId, List<String> errors) {
+}
@@ -1,27 +1,51 @@
 package ag.selm.catalogue.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.jpa.HibernateHints;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
 @Table(schema = "catalogue", name = "t_product")
-@NamedQueries(
+//кеш второго уровня работает только в профиле l2-cache, без него аннотации и подсказки игнорируются;
+//NONSTRICT_READ_WRITE не кладет в кеш только что вставленный товар, версию которого еще назначит база данных,
+//а массовые update/delete из ProductRepository сбрасывают весь регион
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = "product")
+@NamedQueries({
         @NamedQuery(
                 name = "Product.findAllByTitleLikeIgnoringCase",
-                query = "select p from Product p where p.title ilike :filter"
+                query = "select p from Product p where p.title ilike :filter",
+                hints = @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true")
+        ),
+        @NamedQuery(
+                name = "Product.findAllByTitleLikeIgnoringCaseAfter",
+                query = "select p from Product p where p.title ilike :filter escape '\\' and p.id > :after order by p.id",
+                hints = @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true")
+        ),
+        @NamedQuery(
+                name = "Product.streamAllByTitleLikeIgnoringCase",
+                query = "select p from Product p where p.title ilike :filter escape '\\' order by p.id"
         )
-)
+})
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    //последовательность вместо IDENTITY: идентификаторы известны до вставки, и Hibernate может
+    //отправлять insert пакетами; pooled-оптимизатор обращается к последовательности раз на 50 товаров
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_id_generator")
+    @SequenceGenerator(name = "product_id_generator", schema = "catalogue", sequenceName = "t_product_id_seq",
+            allocationSize = 50)
     private Integer id;
 
     @Column(name = "c_title")
@@ -32,4 +56,14 @@ public class Product {
     @Column(name = "c_details")
     @Size(max = 1000)
     private String details;
+
+    //версию назначает база данных (значение по умолчанию и триггер на изменение), в ответах она передается в ETag
+    @Column(name = "c_version", insertable = false, updatable = false)
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private Long version;
+
+    public Product(Integer id, String title, String details) {
+        this(id, title, details, null);
+    }
 }
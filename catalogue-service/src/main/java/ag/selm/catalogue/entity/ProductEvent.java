@@ -0,0 +1,36 @@
+package ag.selm.catalogue.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(schema = "catalogue", name = "t_product_event")
+public class ProductEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_event_id_generator")
+    @SequenceGenerator(name = "product_event_id_generator", schema = "catalogue",
+            sequenceName = "t_product_event_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "c_product_id")
+    private Integer productId;
+
+    @Column(name = "c_type")
+    @Enumerated(EnumType.STRING)
+    private ProductEventType type;
+
+    @Column(name = "c_created_at")
+    private Instant createdAt;
+
+    public ProductEvent(Integer productId, ProductEventType type) {
+        this(null, productId, type, Instant.now());
+    }
+}
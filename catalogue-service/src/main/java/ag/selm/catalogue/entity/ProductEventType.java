@@ -0,0 +1,10 @@
+package ag.selm.catalogue.entity;
+
+public enum ProductEventType {
+
+    CREATED,
+
+    UPDATED,
+
+    DELETED
+}
@@ -0,0 +1,5 @@
+package ag.selm.catalogue.entity;
+
+//краткое представление товара для списков: без описания, которое показывается только в карточке товара
+public record ProductSummary(Integer id, String title) {
+}
@@ -0,0 +1,6 @@
+package ag.selm.catalogue.entity;
+
+//количество товаров для интерфейса списка; exact = false - оценка планировщика PostgreSQL,
+//которая может отличаться от точного значения
+public record ProductsCount(long count, boolean exact) {
+}
@@ -0,0 +1,13 @@
+package ag.selm.catalogue.entity;
+
+public enum ProductsCountMode {
+
+    //count(*) по таблице или по индексу фильтра
+    EXACT,
+
+    //оценка планировщика: reltuples для всего каталога, EXPLAIN для фильтра
+    ESTIMATE,
+
+    //оценка для больших выборок, точное значение для небольших
+    AUTO
+}
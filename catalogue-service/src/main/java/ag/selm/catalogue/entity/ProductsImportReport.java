@@ -0,0 +1,12 @@
+package ag.selm.catalogue.entity;
+
+import java.util.List;
+
+//итог загрузки товаров из CSV: rejectedLines содержит не более первых 1000 отклоненных записей
+public record ProductsImportReport(long received, long inserted, long updated, long rejected,
+                                   List<RejectedLine> rejectedLines) {
+
+    //line - номер записи CSV без учета заголовка, начиная с 1
+    public record RejectedLine(long line, String error) {
+    }
+}
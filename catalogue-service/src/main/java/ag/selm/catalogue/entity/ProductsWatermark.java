@@ -0,0 +1,6 @@
+package ag.selm.catalogue.entity;
+
+//метка актуальности каталога: счетчик изменений увеличивается при каждой фиксированной вставке,
+//изменении и удалении товаров
+public record ProductsWatermark(Long changes) {
+}
@@ -0,0 +1,19 @@
+package ag.selm.catalogue.event;
+
+import ag.selm.catalogue.entity.ProductEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+//доставка внутри приложения: события получают слушатели @EventListener(ProductEvent)
+@RequiredArgsConstructor
+public class ApplicationProductEventSink implements ProductEventSink {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Override
+    public void publish(List<ProductEvent> events) {
+        events.forEach(this.applicationEventPublisher::publishEvent);
+    }
+}
@@ -0,0 +1,19 @@
+package ag.selm.catalogue.event;
+
+import ag.selm.catalogue.entity.ProductEvent;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+//доставка нескольким получателям по порядку; ошибка любого из них оставляет события в журнале,
+//и при повторе они снова придут всем получателям
+@RequiredArgsConstructor
+public class CompositeProductEventSink implements ProductEventSink {
+
+    private final List<ProductEventSink> sinks;
+
+    @Override
+    public void publish(List<ProductEvent> events) {
+        this.sinks.forEach(sink -> sink.publish(events));
+    }
+}
@@ -0,0 +1,25 @@
+package ag.selm.catalogue.event;
+
+import ag.selm.catalogue.config.CacheBeans;
+import ag.selm.catalogue.entity.ProductEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+//вытесняет из локального кеша товары, измененные на любом узле каталога
+@Component
+@RequiredArgsConstructor
+public class ProductCacheInvalidator {
+
+    private final CacheManager cacheManager;
+
+    @EventListener
+    public void onProductEvent(ProductEvent event) {
+        Cache cache = this.cacheManager.getCache(CacheBeans.PRODUCTS_CACHE);
+        if (cache != null) {
+            cache.evict(event.getProductId());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package ag.selm.catalogue.event;
+
+import ag.selm.catalogue.service.ProductEventRelay;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "selmag.product-events.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class ProductEventRelayJob {
+
+    private final ProductEventRelay productEventRelay;
+
+    @Scheduled(fixedDelayString = "${selmag.product-events.relay.delay:1s}")
+    public void relayPendingEvents() {
+        //журнал разбирается пачками, пока в нем остаются события
+        int relayed;
+        do {
+            relayed = this.productEventRelay.relayPendingEvents();
+        } while (relayed > 0);
+    }
+}
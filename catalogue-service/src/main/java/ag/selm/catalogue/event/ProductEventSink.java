@@ -0,0 +1,12 @@
+package ag.selm.catalogue.event;
+
+import ag.selm.catalogue.entity.ProductEvent;
+
+import java.util.List;
+
+//получатель событий об изменении товаров; исключение означает, что события не доставлены
+//и будут отправлены повторно, поэтому получатели должны обрабатывать повторы
+public interface ProductEventSink {
+
+    void publish(List<ProductEvent> events);
+}
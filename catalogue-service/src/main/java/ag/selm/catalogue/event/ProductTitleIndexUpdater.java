@@ -0,0 +1,34 @@
+package ag.selm.catalogue.event;
+
+import ag.selm.catalogue.entity.ProductEvent;
+import ag.selm.catalogue.entity.ProductEventType;
+import ag.selm.catalogue.repository.ProductRepository;
+import ag.selm.catalogue.service.ProductTitleIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+//обновляет индекс подсказок по товарам, измененным на любом узле каталога; название перечитывается
+//из базы данных, так как событие его не содержит, а повторное событие лишь повторно записывает то же значение
+@Component
+@RequiredArgsConstructor
+public class ProductTitleIndexUpdater {
+
+    private final ProductRepository productRepository;
+
+    private final ProductTitleIndex productTitleIndex;
+
+    @EventListener
+    public void onProductEvent(ProductEvent event) {
+        int productId = event.getProductId();
+        if (event.getType() == ProductEventType.DELETED) {
+            this.productTitleIndex.remove(productId);
+            return;
+        }
+
+        //товар мог быть удален после записи события
+        this.productRepository.findSummaryById(productId)
+                .ifPresentOrElse(product -> this.productTitleIndex.put(product.id(), product.title()),
+                        () -> this.productTitleIndex.remove(productId));
+    }
+}
@@ -0,0 +1,31 @@
+package ag.selm.catalogue.event;
+
+import ag.selm.catalogue.entity.ProductEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestClient;
+
+import java.net.URI;
+import java.util.List;
+
+//доставка по HTTP: пачка событий отправляется JSON-массивом на каждый адрес,
+//ответ с ошибкой от любого получателя оставляет события в журнале до следующей попытки
+@RequiredArgsConstructor
+public class WebhookProductEventSink implements ProductEventSink {
+
+    private final RestClient restClient;
+
+    private final List<URI> uris;
+
+    @Override
+    public void publish(List<ProductEvent> events) {
+        for (URI uri : this.uris) {
+            this.restClient.post()
+                    .uri(uri)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(events)
+                    .retrieve()
+                    .toBodilessEntity();
+        }
+    }
+}
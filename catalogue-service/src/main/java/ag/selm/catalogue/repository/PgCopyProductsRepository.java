@@ -0,0 +1,171 @@
+package ag.selm.catalogue.repository;
+
+import ag.selm.catalogue.entity.ProductsImportReport;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+
+//массовый обмен товарами через COPY: строки идут между соединением и потоком напрямую,
+//без создания объекта на каждую строку
+@Repository
+@RequiredArgsConstructor
+public class PgCopyProductsRepository {
+
+    private static final int MAX_REJECTED_LINES = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public long copyProductsTo(int sinceId, OutputStream outputStream) {
+        //COPY не поддерживает параметры запроса, sinceId подставляется как число
+        String sql = """
+                copy (select id, c_title, c_details from catalogue.t_product where id > %d order by id)
+                to stdout with (format csv, header)""".formatted(sinceId);
+
+        //соединение берется из текущей транзакции, если она есть
+        return this.jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyOut(sql, outputStream);
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        });
+    }
+
+    //загрузка CSV в формате выгрузки (id, c_title, c_details): пустой или отсутствующий в каталоге id - новый товар,
+    //существующий id - изменение товара
+    //должна выполняться в транзакции: промежуточная таблица создается и удаляется в ней же,
+    //при ошибке она исчезнет вместе с откатом
+    public ProductsImportReport importProducts(InputStream inputStream) {
+        String staging = "catalogue.t_product_import_" + UUID.randomUUID().toString().replace("-", "");
+
+        //unlogged: строки промежуточной таблицы не пишутся в WAL;
+        //все значения - текст, чтобы некорректная запись отклонялась, а не прерывала COPY
+        this.jdbcTemplate.execute("""
+                create unlogged table %s (
+                    c_line       bigserial primary key,
+                    c_id         text,
+                    c_title      text,
+                    c_details    text,
+                    c_product_id int,
+                    c_target_id  int,
+                    c_created    boolean not null default false,
+                    c_error      text
+                )""".formatted(staging));
+
+        long received = this.copyIn("copy %s (c_id, c_title, c_details) from stdin with (format csv, header)"
+                .formatted(staging), inputStream);
+
+        //те же ограничения, что у NewProductPayload, и проверка c_title из схемы t_product
+        this.jdbcTemplate.update("""
+                update %s
+                set c_product_id = case when c_id ~ '^\\d{1,9}$' then c_id::int end,
+                    c_error      = case
+                                       when c_id is not null and c_id !~ '^\\d{1,9}$' then 'id_is_invalid'
+                                       when c_title is null then 'title_is_null'
+                                       when char_length(c_title) not between 3 and 50
+                                           or char_length(trim(c_title)) < 3 then 'title_size_is_invalid'
+                                       when char_length(c_details) > 1000 then 'details_size_is_invalid'
+                        end""".formatted(staging));
+        //товар можно изменить только одной записью файла, остальные записи с тем же id отклоняются
+        this.jdbcTemplate.update("""
+                update %1$s s
+                set c_error = 'id_is_duplicated'
+                from (select c_line, row_number() over (partition by c_product_id order by c_line) as c_n
+                      from %1$s
+                      where c_error is null
+                        and c_product_id is not null) d
+                where d.c_line = s.c_line
+                  and d.c_n > 1""".formatted(staging));
+
+        long accepted = this.jdbcTemplate.queryForObject(
+                "select count(*) from %s where c_error is null".formatted(staging), Long.class);
+        //изменяемые товары блокируются до конца транзакции: удаление товара между проверкой существования
+        //и MERGE привело бы запись в ветку вставки без идентификатора; товар, удаленный до блокировки,
+        //считается отсутствующим и создается заново; порядок по id исключает взаимные блокировки загрузок
+        this.jdbcTemplate.queryForList("""
+                select p.id
+                from catalogue.t_product p
+                         join %s s on s.c_product_id = p.id
+                where s.c_error is null
+                order by p.id
+                for update of p""".formatted(staging), Integer.class);
+
+        //запись без id или с id, отсутствующим в каталоге, создает товар с новым идентификатором;
+        //идентификатор берется из последовательности обычным nextval, как значение по умолчанию столбца id:
+        //значение последовательности резервирует для себя целый блок оптимизатора Hibernate,
+        //поэтому с идентификаторами, которые выдает Hibernate, оно не пересекается при любом allocationSize;
+        //MERGE в PostgreSQL 16 не возвращает вставленные строки, а идентификаторы нужны для журнала событий,
+        //поэтому они назначаются в промежуточной таблице
+        long created = accepted == 0 ? 0 : this.jdbcTemplate.update("""
+                update %s s
+                set c_created   = true,
+                    c_target_id = nextval('catalogue.t_product_id_seq')
+                where c_error is null
+                  and not exists (select 1 from catalogue.t_product p where p.id = s.c_product_id)"""
+                .formatted(staging));
+        long updated = accepted - created;
+
+        if (accepted != 0) {
+            this.jdbcTemplate.update("""
+                    merge into catalogue.t_product p
+                    using (select c_product_id, c_target_id, c_created, c_title, c_details
+                           from %s
+                           where c_error is null) s
+                    on p.id = s.c_product_id and not s.c_created
+                    when matched then
+                        update set c_title = s.c_title, c_details = s.c_details
+                    when not matched then
+                        insert (id, c_title, c_details) values (s.c_target_id, s.c_title, s.c_details)"""
+                    .formatted(staging));
+
+            //события журнала в той же транзакции, что и изменения товаров: ProductEventRelayJob разошлет их
+            //остальным узлам так же, как события от ProductService; идентификатор события - значение по умолчанию
+            this.jdbcTemplate.update("""
+                    insert into catalogue.t_product_event (c_product_id, c_type)
+                    select coalesce(c_target_id, c_product_id),
+                           case when c_created then 'CREATED' else 'UPDATED' end
+                    from %s
+                    where c_error is null
+                    order by c_line""".formatted(staging));
+        }
+
+        List<ProductsImportReport.RejectedLine> rejectedLines = this.jdbcTemplate.query("""
+                        select c_line, c_error
+                        from %s
+                        where c_error is not null
+                        order by c_line
+                        limit %d""".formatted(staging, MAX_REJECTED_LINES),
+                (resultSet, rowNum) -> new ProductsImportReport.RejectedLine(
+                        resultSet.getLong("c_line"), resultSet.getString("c_error")));
+
+        this.jdbcTemplate.execute("drop table " + staging);
+
+        return new ProductsImportReport(received, created, updated, received - accepted, rejectedLines);
+    }
+
+    private long copyIn(String sql, InputStream inputStream) {
+        return this.jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql, inputStream);
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            } catch (SQLException exception) {
+                //класс 22 - ошибки данных: файл не разбирается как CSV из трех столбцов
+                if (exception.getSQLState() != null && exception.getSQLState().startsWith("22")) {
+                    throw new IllegalArgumentException("catalogue.products.import.errors.malformed_csv", exception);
+                }
+                throw exception;
+            }
+        });
+    }
+}
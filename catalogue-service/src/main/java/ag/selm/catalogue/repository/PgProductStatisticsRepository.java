@@ -0,0 +1,39 @@
+package ag.selm.catalogue.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.UncheckedIOException;
+
+//оценки количества товаров по статистике PostgreSQL: таблица не читается, поэтому время ответа
+//не зависит от размера каталога; значения обновляются autovacuum/analyze и могут отставать
+@Repository
+@RequiredArgsConstructor
+public class PgProductStatisticsRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    //-1, если таблица еще ни разу не анализировалась
+    public long estimateCount() {
+        Long estimate = this.jdbcTemplate.queryForObject(
+                "select reltuples::bigint from pg_class where oid = 'catalogue.t_product'::regclass", Long.class);
+        return estimate == null ? -1 : estimate;
+    }
+
+    //число строк, которое планировщик ожидает получить по фильтру (шаблон ilike с экранированием)
+    public long estimateCount(String filter) {
+        String plan = this.jdbcTemplate.queryForObject(
+                "explain (format json) select 1 from catalogue.t_product where c_title ilike ? escape '\\'",
+                String.class, filter);
+        try {
+            return this.objectMapper.readTree(plan).path(0).path("Plan").path("Plan Rows").asLong(-1);
+        } catch (JsonProcessingException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package ag.selm.catalogue.repository;
+
+import ag.selm.catalogue.entity.ProductEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ProductEventRepository extends CrudRepository<ProductEvent, Long> {
+
+    List<ProductEvent> findAllByOrderById(Pageable pageable);
+
+    @Modifying
+    @Query("delete from ProductEvent e where e.id in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    //блокировка снимается при завершении транзакции; пока она удерживается одним узлом,
+    //остальные узлы пропускают доставку, и события не отправляются дважды параллельно
+    @Query(value = "select pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryAdvisoryTransactionLock(@Param("key") long key);
+}
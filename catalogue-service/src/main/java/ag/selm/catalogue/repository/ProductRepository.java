@@ -1,10 +1,22 @@
 package ag.selm.catalogue.repository;
 
 import ag.selm.catalogue.entity.Product;
+import ag.selm.catalogue.entity.ProductSummary;
+import ag.selm.catalogue.entity.ProductsWatermark;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 public interface ProductRepository extends CrudRepository<Product, Integer> {
 
 //    Iterable<Product> findAllByTitleLikeIgnoreCase(String filter);//(1)select * from catalogue.t_product where c_title ilike :filter
@@ -17,4 +29,74 @@ public interface ProductRepository extends CrudRepository<Product, Integer> {
 
     @Query(name = "Product.findAllByTitleLikeIgnoringCase", nativeQuery = true)//(4)(JPQL + NamedQuery (см Product) )
     Iterable<Product> findAllByTitleLikeIgnoreCase(@Param("filter") String filter);
+
+    //keyset-пагинация: следующая страница начинается сразу после последнего полученного id
+    List<Product> findAllByIdGreaterThanOrderById(int after, Pageable pageable);
+
+    @Query(name = "Product.findAllByTitleLikeIgnoringCaseAfter")
+    List<Product> findAllByTitleLikeIgnoreCase(@Param("filter") String filter, @Param("after") int after,
+                                               Pageable pageable);
+
+    //краткие представления для списков: из таблицы читаются только id и c_title,
+    //сущности не создаются и не попадают в контекст персистентности
+    @Query("select new ag.selm.catalogue.entity.ProductSummary(p.id, p.title) from Product p where p.id > :after order by p.id")
+    List<ProductSummary> findAllSummariesByIdGreaterThan(@Param("after") int after, Pageable pageable);
+
+    //запрос не кешируется и не затрагивает кеш второго уровня: название читается из базы данных
+    @Query("select new ag.selm.catalogue.entity.ProductSummary(p.id, p.title) from Product p where p.id = :id")
+    Optional<ProductSummary> findSummaryById(@Param("id") int id);
+
+    @Query("""
+            select new ag.selm.catalogue.entity.ProductSummary(p.id, p.title) from Product p
+            where p.title ilike :filter escape '\\' and p.id > :after order by p.id""")
+    List<ProductSummary> findAllSummariesByTitleLikeIgnoreCase(@Param("filter") String filter, @Param("after") int after,
+                                                              Pageable pageable);
+
+    //потоковое чтение: строки забираются из курсора порциями по fetchSize, а не загружаются все сразу
+    //работает только внутри транзакции
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "256"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Product> streamAllByOrderById();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "256"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(name = "Product.streamAllByTitleLikeIgnoringCase")
+    Stream<Product> streamAllByTitleLikeIgnoreCase(@Param("filter") String filter);
+
+    //ранжированный полнотекстовый поиск, запрос в синтаксисе websearch ("молоко -кефир", "\"белый хлеб\"");
+    //Slice вместо Page: запрашивается на одну строку больше страницы, подсчет всех совпадений не нужен
+    @Query(value = """
+            select p.id, p.c_title, p.c_details, p.c_version
+            from catalogue.t_product p, websearch_to_tsquery('russian', :query) q
+            where p.c_search_vector @@ q
+            order by ts_rank(p.c_search_vector, q) desc, p.id""", nativeQuery = true)
+    Slice<Product> searchAllByQuery(@Param("query") String query, Pageable pageable);
+
+    //счетчик изменений ведет триггер tr_product_count_changes; таблица из одной строки читается за O(1)
+    //независимо от размера каталога
+    @Query(value = "select c_count from catalogue.t_product_changes", nativeQuery = true)
+    long findChangesCount();
+
+    default ProductsWatermark findWatermark() {
+        return new ProductsWatermark(findChangesCount());
+    }
+
+    //точное количество по фильтру; при селективном фильтре строки находятся по триграммному индексу
+    @Query("select count(p) from Product p where p.title ilike :filter escape '\\'")
+    long countByTitleLikeIgnoreCase(@Param("filter") String filter);
+
+    //изменение и удаление одним запросом, без предварительной загрузки товара;
+    //количество затронутых строк показывает, существовал ли товар
+    @Modifying
+    @Query("update Product p set p.title = :title, p.details = :details where p.id = :id")
+    int updateTitleAndDetailsById(@Param("id") int id, @Param("title") String title,
+                                  @Param("details") String details);
+
+    @Modifying
+    @Query("delete from Product p where p.id = :id")
+    int deleteProductById(@Param("id") int id);
 }
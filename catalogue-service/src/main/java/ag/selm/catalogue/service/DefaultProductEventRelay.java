@@ -0,0 +1,51 @@
+package ag.selm.catalogue.service;
+
+import ag.selm.catalogue.entity.ProductEvent;
+import ag.selm.catalogue.event.ProductEventSink;
+import ag.selm.catalogue.repository.ProductEventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+public class DefaultProductEventRelay implements ProductEventRelay {
+
+    //ключ pg_try_advisory_xact_lock, общий для всех узлов каталога
+    static final long RELAY_LOCK_KEY = "catalogue.t_product_event".hashCode();
+
+    private final ProductEventRepository productEventRepository;
+
+    private final ProductEventSink productEventSink;
+
+    private final int batchSize;
+
+    public DefaultProductEventRelay(ProductEventRepository productEventRepository, ProductEventSink productEventSink,
+                                    @Value("${selmag.product-events.relay.batch-size:100}") int batchSize) {
+        this.productEventRepository = productEventRepository;
+        this.productEventSink = productEventSink;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    @Transactional
+    //доставка не менее одного раза: события удаляются только после успешной отправки,
+    //при ошибке получателя транзакция откатывается и события остаются в журнале;
+    //событие транзакции, зафиксированной позже соседней с большим id, уйдет следующей пачкой
+    public int relayPendingEvents() {
+        if (!this.productEventRepository.tryAdvisoryTransactionLock(RELAY_LOCK_KEY)) {
+            return 0;
+        }
+
+        List<ProductEvent> events = this.productEventRepository.findAllByOrderById(PageRequest.ofSize(this.batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        this.productEventSink.publish(events);
+        this.productEventRepository.deleteAllByIdIn(events.stream().map(ProductEvent::getId).toList());
+        return events.size();
+    }
+}
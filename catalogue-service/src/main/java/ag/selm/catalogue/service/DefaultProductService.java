@@ -1,57 +1,259 @@
 package ag.selm.catalogue.service;
 
+import ag.selm.catalogue.config.CacheBeans;
 import ag.selm.catalogue.entity.Product;
+import ag.selm.catalogue.entity.ProductEvent;
+import ag.selm.catalogue.entity.ProductEventType;
+import ag.selm.catalogue.entity.ProductSummary;
+import ag.selm.catalogue.entity.ProductsCount;
+import ag.selm.catalogue.entity.ProductsCountMode;
+import ag.selm.catalogue.entity.ProductsWatermark;
+import ag.selm.catalogue.repository.PgProductStatisticsRepository;
+import ag.selm.catalogue.repository.ProductEventRepository;
 import ag.selm.catalogue.repository.ProductRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
+@CacheConfig(cacheNames = CacheBeans.PRODUCTS_CACHE)
+//таймер на каждый метод (теги class и method), гистограмма нужна для расчета перцентилей в Prometheus
+@Timed(value = "catalogue.product.service", histogram = true)
 public class DefaultProductService implements ProductService {
 
+    //совпадает с hibernate.jdbc.batch_size и allocationSize идентификатора товара
+    private static final int BATCH_SIZE = 50;
+
+    private static final int TITLE_INDEX_PAGE_SIZE = 1000;
+
+    //в режиме AUTO выборки больше этой оценки не пересчитываются точно: count(*) по ним
+    //читает почти всю таблицу, а интерфейсу списка достаточно порядка величины
+    static final long EXACT_COUNT_THRESHOLD = 10_000;
+
     private final ProductRepository productRepository;
 
+    //события записываются в той же транзакции, что и изменение товара, см. ProductEventRelay
+    private final ProductEventRepository productEventRepository;
+
+    private final EntityManager entityManager;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ProductTitleIndex productTitleIndex;
+
+    private final PgProductStatisticsRepository productStatisticsRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Product> findAllProducts(String filter, int after, int limit) {
+        this.countListing(filter, "full");
+        if (filter != null && !filter.isBlank()) {
+            return this.productRepository.findAllByTitleLikeIgnoreCase("%" + escapeLikePattern(filter) + "%", after,
+                    PageRequest.ofSize(limit));
+        }else{
+            return this.productRepository.findAllByIdGreaterThanOrderById(after, PageRequest.ofSize(limit));
+        }
+    }
+
     @Override
-    public Iterable<Product> findAllProducts(String filter) {
+    @Transactional(readOnly = true)
+    public List<ProductSummary> findAllProductSummaries(String filter, int after, int limit) {
+        this.countListing(filter, "summary");
         if (filter != null && !filter.isBlank()) {
-            return this.productRepository.findAllByTitleLikeIgnoreCase("%" + filter + "%");
+            return this.productRepository.findAllSummariesByTitleLikeIgnoreCase("%" + escapeLikePattern(filter) + "%",
+                    after, PageRequest.ofSize(limit));
         }else{
-            return this.productRepository.findAll();
+            return this.productRepository.findAllSummariesByIdGreaterThan(after, PageRequest.ofSize(limit));
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Product> searchProducts(String query, int page, int size) {
+        return this.productRepository.searchAllByQuery(query, PageRequest.of(page, size));
+    }
+
+    @Override
+    //подсказки берутся из индекса в памяти, база данных не используется
+    public List<ProductSummary> suggestProducts(String prefix, int limit) {
+        return this.productTitleIndex.suggest(prefix, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    //индекс строится при запуске и после загрузки CSV, остальные изменения вносятся по одному товару
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildTitleIndex() {
+        //товары читаются внутри перестройки: изменения, пришедшие за время чтения, индекс применит к новой версии
+        this.productTitleIndex.rebuild(this::findAllTitleSummaries);
+    }
+
+    private List<ProductSummary> findAllTitleSummaries() {
+        List<ProductSummary> products = new ArrayList<>();
+        List<ProductSummary> page;
+        int after = 0;
+        do {
+            page = this.productRepository.findAllSummariesByIdGreaterThan(after,
+                    PageRequest.ofSize(TITLE_INDEX_PAGE_SIZE));
+            products.addAll(page);
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1).id();
+            }
+        } while (page.size() == TITLE_INDEX_PAGE_SIZE);
+        return products;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllProducts(String filter, Consumer<Product> consumer) {
+        try (Stream<Product> products = filter != null && !filter.isBlank()
+                ? this.productRepository.streamAllByTitleLikeIgnoreCase("%" + escapeLikePattern(filter) + "%")
+                : this.productRepository.streamAllByOrderById()) {
+            products.forEach(product -> {
+                consumer.accept(product);
+                //товар уже передан потребителю, держать его в контексте персистентности незачем
+                this.entityManager.detach(product);
+            });
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductsWatermark findProductsWatermark() {
+        return this.productRepository.findWatermark();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductsCount countProducts(String filter, ProductsCountMode mode) {
+        String pattern = filter != null && !filter.isBlank() ? "%" + escapeLikePattern(filter) + "%" : null;
+        if (mode != ProductsCountMode.EXACT) {
+            long estimate = pattern != null
+                    ? this.productStatisticsRepository.estimateCount(pattern)
+                    : this.productStatisticsRepository.estimateCount();
+            //отрицательная оценка - статистики по таблице еще нет, остается только точный подсчет
+            if (estimate >= 0 && (mode == ProductsCountMode.ESTIMATE || estimate > EXACT_COUNT_THRESHOLD)) {
+                return new ProductsCount(estimate, false);
+            }
+        }
+
+        return new ProductsCount(pattern != null
+                ? this.productRepository.countByTitleLikeIgnoreCase(pattern)
+                : this.productRepository.count(), true);
+    }
+
     @Override
     @Transactional
+    //версию нового товара назначает база данных, поэтому в кеш он попадет при первом чтении;
+    //вытеснение убирает закешированное отсутствие товара с этим идентификатором
+    @CacheEvict(key = "#result.id")
     public Product createProduct(String title, String details) {
-        return this.productRepository.save(new Product(null, title, details));
+        Product product = this.productRepository.save(new Product(null, title, details));
+        this.productEventRepository.save(new ProductEvent(product.getId(), ProductEventType.CREATED));
+        this.productTitleIndex.putAfterCommit(product.getId(), product.getTitle());
+        return product;
     }
 
     @Override
+    @Transactional
+    //в кеше могли остаться отсутствующие товары с идентификаторами, которые получат новые товары
+    @CacheEvict(allEntries = true)
+    public List<Product> createProducts(List<Product> products) {
+        List<Product> createdProducts = new ArrayList<>(products.size());
+        for (int i = 0; i < products.size(); i++) {
+            Product product = this.productRepository.save(products.get(i));
+            this.productEventRepository.save(new ProductEvent(product.getId(), ProductEventType.CREATED));
+            this.productTitleIndex.putAfterCommit(product.getId(), product.getTitle());
+            createdProducts.add(product);
+            //каждые BATCH_SIZE товаров отправляем пакетом и очищаем контекст персистентности,
+            //чтобы он не рос вместе с размером загрузки
+            if ((i + 1) % BATCH_SIZE == 0) {
+                this.entityManager.flush();
+                this.entityManager.clear();
+            }
+        }
+
+        return createdProducts;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    //sync: при промахе по горячему ключу товар загружает только один поток, остальные ждут его результат
+    @Cacheable(key = "#productId", sync = true)
     public Optional<Product> findProduct(int productId) {
         return this.productRepository.findById(productId);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    //один запрос where id in (...), стоимость зависит от числа идентификаторов, а не от размера каталога;
+    //отсутствующие товары пропускаются
+    public List<Product> findProductsByIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        List<Product> products = new ArrayList<>();
+        this.productRepository.findAllById(ids).forEach(products::add);
+        products.sort(Comparator.comparing(Product::getId));
+        return products;
+    }
+
     @Override
     @Transactional
+    @CacheEvict(key = "#id")
     public void updateProduct(Integer id, String title, String details) {
-        this.productRepository.findById(id)
-                .ifPresentOrElse(product -> {
-                    product.setTitle(title);
-                    product.setDetails(details);
-
-//                    this.productRepository.save(product);
-                }, () -> {
-                    throw new NoSuchElementException();
-                });
+        if (this.productRepository.updateTitleAndDetailsById(id, title, details) == 0) {
+            throw new NoSuchElementException("catalogue.errors.product.not_found");
+        }
+        this.productEventRepository.save(new ProductEvent(id, ProductEventType.UPDATED));
+        this.productTitleIndex.putAfterCommit(id, title);
     }
 
     @Override
     @Transactional
+    @CacheEvict(key = "#id")
     public void deleteProduct(Integer id) {
-        this.productRepository.deleteById(id);
+        if (this.productRepository.deleteProductById(id) == 0) {
+            throw new NoSuchElementException("catalogue.errors.product.not_found");
+        }
+        this.productEventRepository.save(new ProductEvent(id, ProductEventType.DELETED));
+        this.productTitleIndex.removeAfterCommit(id);
+    }
+
+    //доля запросов с фильтром (ilike по названию) среди всех запросов списка;
+    //сам фильтр в тег не попадает, чтобы число временных рядов не зависело от пользовательского ввода
+    private void countListing(String filter, String view) {
+        this.meterRegistry.counter("catalogue.products.listings",
+                "filtered", String.valueOf(filter != null && !filter.isBlank()),
+                "view", view).increment();
+    }
+
+    //символы % и _ из пользовательского фильтра должны искаться буквально, а не как шаблоны
+    private static String escapeLikePattern(String filter) {
+        return filter
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
     }
 }
@@ -0,0 +1,58 @@
+package ag.selm.catalogue.service;
+
+import ag.selm.catalogue.config.CacheBeans;
+import ag.selm.catalogue.entity.Product;
+import ag.selm.catalogue.entity.ProductsImportReport;
+import ag.selm.catalogue.repository.PgCopyProductsRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+@Service
+@RequiredArgsConstructor
+public class DefaultProductsBulkService implements ProductsBulkService {
+
+    private final PgCopyProductsRepository pgCopyProductsRepository;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportProducts(int sinceId, OutputStream outputStream) {
+        return this.pgCopyProductsRepository.copyProductsTo(sinceId, outputStream);
+    }
+
+    @Override
+    @Transactional
+    //загрузка может изменить любые товары и занять идентификаторы закешированных отсутствующих товаров
+    @CacheEvict(cacheNames = CacheBeans.PRODUCTS_CACHE, allEntries = true)
+    public ProductsImportReport importProducts(InputStream inputStream) {
+        ProductsImportReport report = this.pgCopyProductsRepository.importProducts(inputStream);
+        //MERGE выполняется мимо Hibernate, поэтому регион product кеша второго уровня и кеш запросов
+        //сбрасываются явно; после фиксации, чтобы параллельные чтения не вернули в кеш прежние строки
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictHibernateCaches();
+                }
+            });
+        } else {
+            this.evictHibernateCaches();
+        }
+        return report;
+    }
+
+    private void evictHibernateCaches() {
+        this.entityManagerFactory.getCache().evict(Product.class);
+        this.entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+    }
+}
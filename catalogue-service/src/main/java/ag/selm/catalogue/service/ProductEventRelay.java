@@ -0,0 +1,6 @@
+package ag.selm.catalogue.service;
+
+public interface ProductEventRelay {
+
+    int relayPendingEvents();
+}
@@ -1,17 +1,43 @@
 package ag.selm.catalogue.service;
 
 import ag.selm.catalogue.entity.Product;
-
+import ag.selm.catalogue.entity.ProductSummary;
+import ag.selm.catalogue.entity.ProductsCount;
+import ag.selm.catalogue.entity.ProductsCountMode;
+import ag.selm.catalogue.entity.ProductsWatermark;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface ProductService {
 
-    Iterable<Product> findAllProducts(String filter);
+    List<Product> findAllProducts(String filter, int after, int limit);
+
+    List<ProductSummary> findAllProductSummaries(String filter, int after, int limit);
+
+    Slice<Product> searchProducts(String query, int page, int size);
+
+    List<ProductSummary> suggestProducts(String prefix, int limit);
+
+    void rebuildTitleIndex();
+
+    void streamAllProducts(String filter, Consumer<Product> consumer);
+
+    ProductsWatermark findProductsWatermark();
+
+    ProductsCount countProducts(String filter, ProductsCountMode mode);
 
     Product createProduct(String title, String details);
 
+    List<Product> createProducts(List<Product> products);
+
     Optional<Product> findProduct(int productId);
 
+    List<Product> findProductsByIds(Collection<Integer> ids);
+
     void updateProduct(Integer id, String title, String details);
 
     void deleteProduct(Integer id);
@@ -0,0 +1,173 @@
+package ag.selm.catalogue.service;
+
+import ag.selm.catalogue.entity.ProductSummary;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+//индекс названий товаров в памяти для подсказок по префиксу: ключи - нормализованные названия
+//с идентификатором товара, поэтому префикс превращается в диапазон отсортированных ключей
+//и первые N товаров находятся без просмотра остальных
+//изменения с других узлов приходят событиями ProductEvent (см. ProductTitleIndexUpdater)
+@Component
+public class ProductTitleIndex {
+
+    //разделитель меньше любого символа названия: "хлеб" и "хлеб белый" не перемешиваются
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    //при полной перестройке индекс заменяется целиком, чтения не видят его наполовину заполненным
+    private volatile Entries entries = new Entries();
+
+    //изменения по одному товару (после фиксации транзакций и по событиям с других узлов) и замена индекса
+    //выполняются по очереди; ReentrantLock, а не synchronized, чтобы не закреплять виртуальные потоки
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    //изменения, пришедшие во время перестройки: новый индекс читается из базы данных дольше, чем они вносятся,
+    //поэтому перед заменой они повторяются на нем; null, пока перестройка не идет
+    private List<Consumer<Entries>> pendingUpdates;
+
+    public List<ProductSummary> suggest(String prefix, int limit) {
+        String normalizedPrefix = normalize(prefix);
+        if (normalizedPrefix.isEmpty()) {
+            return List.of();
+        }
+
+        List<ProductSummary> suggestions = new ArrayList<>(limit);
+        for (ProductSummary product : this.entries.productsByKey
+                .subMap(normalizedPrefix, true, normalizedPrefix + Character.MAX_VALUE, false).values()) {
+            if (suggestions.size() == limit) {
+                break;
+            }
+            suggestions.add(product);
+        }
+        return suggestions;
+    }
+
+    public void put(int id, String title) {
+        this.update(entries -> entries.put(id, title));
+    }
+
+    public void remove(int id) {
+        this.update(entries -> entries.remove(id));
+    }
+
+    public void replaceAll(Iterable<ProductSummary> products) {
+        this.rebuild(() -> products);
+    }
+
+    //loader читает все товары; изменения, внесенные за время чтения, не теряются при замене индекса
+    public void rebuild(Supplier<? extends Iterable<ProductSummary>> loader) {
+        this.rebuildLock.lock();
+        try {
+            this.updateLock.lock();
+            try {
+                this.pendingUpdates = new ArrayList<>();
+            } finally {
+                this.updateLock.unlock();
+            }
+
+            try {
+                Entries rebuilt = new Entries();
+                loader.get().forEach(product -> rebuilt.put(product.id(), product.title()));
+
+                this.updateLock.lock();
+                try {
+                    this.pendingUpdates.forEach(update -> update.accept(rebuilt));
+                    this.entries = rebuilt;
+                } finally {
+                    this.updateLock.unlock();
+                }
+            } finally {
+                this.updateLock.lock();
+                try {
+                    this.pendingUpdates = null;
+                } finally {
+                    this.updateLock.unlock();
+                }
+            }
+        } finally {
+            this.rebuildLock.unlock();
+        }
+    }
+
+    //изменения внутри транзакции применяются только после ее фиксации, чтобы откат не оставил в индексе
+    //несуществующий товар
+    public void putAfterCommit(int id, String title) {
+        afterCommit(() -> this.put(id, title));
+    }
+
+    public void removeAfterCommit(int id) {
+        afterCommit(() -> this.remove(id));
+    }
+
+    public int size() {
+        return this.entries.keysById.size();
+    }
+
+    static String normalize(String title) {
+        return title == null ? "" : title.strip()
+                .replaceAll("\\s+", " ")
+                .toLowerCase(Locale.ROOT)
+                .replace('ё', 'е');
+    }
+
+    private void update(Consumer<Entries> update) {
+        this.updateLock.lock();
+        try {
+            update.accept(this.entries);
+            if (this.pendingUpdates != null) {
+                this.pendingUpdates.add(update);
+            }
+        } finally {
+            this.updateLock.unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class Entries {
+
+        private final ConcurrentSkipListMap<String, ProductSummary> productsByKey = new ConcurrentSkipListMap<>();
+
+        private final Map<Integer, String> keysById = new ConcurrentHashMap<>();
+
+        void put(int id, String title) {
+            String key = normalize(title) + KEY_SEPARATOR + id;
+            String previousKey = this.keysById.put(id, key);
+            if (previousKey != null && !previousKey.equals(key)) {
+                this.productsByKey.remove(previousKey);
+            }
+            this.productsByKey.put(key, new ProductSummary(id, title));
+        }
+
+        void remove(int id) {
+            String key = this.keysById.remove(id);
+            if (key != null) {
+                this.productsByKey.remove(key);
+            }
+        }
+    }
+}
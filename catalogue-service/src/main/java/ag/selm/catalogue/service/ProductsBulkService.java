@@ -0,0 +1,13 @@
+package ag.selm.catalogue.service;
+
+import ag.selm.catalogue.entity.ProductsImportReport;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface ProductsBulkService {
+
+    long exportProducts(int sinceId, OutputStream outputStream);
+
+    ProductsImportReport importProducts(InputStream inputStream);
+}
@@ -0,0 +1,5 @@
+create extension if not exists pg_trgm with schema public;
+
+-- GIN-индекс по триграммам позволяет выполнять c_title ilike '%...%' без последовательного сканирования
+create index if not exists idx_product_title_trgm
+    on catalogue.t_product using gin (c_title public.gin_trgm_ops);
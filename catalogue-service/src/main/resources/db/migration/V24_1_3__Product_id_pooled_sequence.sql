@@ -0,0 +1,3 @@
+-- идентификаторы товаров выдаются Hibernate блоками по 50 (оптимизатор pooled),
+-- поэтому шаг последовательности должен совпадать с allocationSize в Product
+alter sequence catalogue.t_product_id_seq increment by 50;
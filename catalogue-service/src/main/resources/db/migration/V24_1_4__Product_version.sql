@@ -0,0 +1,23 @@
+-- версия товара берется из общей последовательности, поэтому max(c_version) растет
+-- при любой вставке и изменении и служит меткой актуальности всего каталога
+create sequence catalogue.t_product_version_seq;
+
+-- значение по умолчанию заполняет версии уже существующих товаров и новых товаров
+alter table catalogue.t_product
+    add column c_version bigint not null default nextval('catalogue.t_product_version_seq');
+
+create function catalogue.f_product_next_version() returns trigger as
+$$
+begin
+    new.c_version := nextval('catalogue.t_product_version_seq');
+    return new;
+end;
+$$ language plpgsql;
+
+create trigger tr_product_next_version
+    before update
+    on catalogue.t_product
+    for each row
+execute function catalogue.f_product_next_version();
+
+create index idx_product_version on catalogue.t_product (c_version);
@@ -0,0 +1,9 @@
+-- полнотекстовый поиск по названию (вес A) и описанию (вес B) товара;
+-- столбец вычисляется базой данных при вставке и изменении строки
+alter table catalogue.t_product
+    add column c_search_vector tsvector generated always as (
+        setweight(to_tsvector('russian', coalesce(c_title, '')), 'A') ||
+        setweight(to_tsvector('russian', coalesce(c_details, '')), 'B')
+        ) stored;
+
+create index idx_product_search_vector on catalogue.t_product using gin (c_search_vector);
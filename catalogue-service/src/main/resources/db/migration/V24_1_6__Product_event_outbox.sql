@@ -0,0 +1,13 @@
+-- журнал изменений товаров (transactional outbox): событие записывается в той же транзакции,
+-- что и изменение товара, и удаляется после доставки получателю
+create table catalogue.t_product_event
+(
+    id           bigserial primary key,
+    c_product_id int         not null,
+    c_type       varchar(16) not null check (c_type in ('CREATED', 'UPDATED', 'DELETED')),
+    c_created_at timestamptz not null default now()
+);
+
+-- события выдаются Hibernate блоками по 50, как и идентификаторы товаров,
+-- чтобы insert событий отправлялись пакетами вместе с insert товаров
+alter sequence catalogue.t_product_event_id_seq increment by 50;
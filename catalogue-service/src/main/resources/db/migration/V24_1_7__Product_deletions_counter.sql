@@ -0,0 +1,26 @@
+-- удаление не меняет max(c_version), поэтому метке актуальности каталога нужен отдельный признак:
+-- счетчик операторов удаления в единственной строке читается за O(1) вместо count(*) по всей таблице;
+-- счетчик меняется в транзакции удаления и становится виден вместе с ней
+create table catalogue.t_product_deletions
+(
+    id      boolean primary key default true check (id),
+    c_count bigint not null default 0
+);
+
+insert into catalogue.t_product_deletions default values;
+
+create function catalogue.f_product_count_deletions() returns trigger as
+$$
+begin
+    update catalogue.t_product_deletions set c_count = c_count + 1;
+    return null;
+end;
+$$ language plpgsql;
+
+-- триггер уровня оператора: массовое удаление увеличивает счетчик один раз, а строку счетчика
+-- блокируют только удаления - вставки и изменения товаров друг друга не ждут
+create trigger tr_product_count_deletions
+    after delete
+    on catalogue.t_product
+    for each statement
+execute function catalogue.f_product_count_deletions();
@@ -0,0 +1,31 @@
+-- max(c_version) не годится для метки актуальности: версии берутся из последовательности до фиксации,
+-- и транзакция с меньшей версией, зафиксированная после транзакции с большей, не меняет максимум;
+-- вместо него счетчик изменений в единственной строке увеличивается триггером уровня оператора
+-- при любой вставке, изменении и удалении; строка блокируется до фиксации, поэтому значения
+-- меняются в порядке фиксации и новое значение видно вместе с изменением
+drop trigger tr_product_count_deletions on catalogue.t_product;
+drop function catalogue.f_product_count_deletions();
+drop table catalogue.t_product_deletions;
+
+create table catalogue.t_product_changes
+(
+    id      boolean primary key default true check (id),
+    c_count bigint not null default 0
+);
+
+insert into catalogue.t_product_changes default values;
+
+create function catalogue.f_product_count_changes() returns trigger as
+$$
+begin
+    update catalogue.t_product_changes set c_count = c_count + 1;
+    return null;
+end;
+$$ language plpgsql;
+
+-- один раз на оператор: пакетная вставка или массовое изменение увеличивают счетчик один раз
+create trigger tr_product_count_changes
+    after insert or update or delete or truncate
+    on catalogue.t_product
+    for each statement
+execute function catalogue.f_product_count_changes();
@@ -0,0 +1,82 @@
+package ag.selm.catalogue;
+
+import ag.selm.catalogue.service.ProductService;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//проверка, что чтение каталога в виртуальных потоках не закрепляет их за потоками-носителями
+//ни в драйвере PostgreSQL, пуле соединений и Hibernate, ни в кеше товаров: тест идет с настоящим
+//кешем Caffeine, как в рабочем режиме, и любое закрепление под вызовом сервиса считается ошибкой
+@SpringBootTest(properties = {"spring.threads.virtual.enabled=true", "spring.cache.type=caffeine"})
+@Slf4j
+class VirtualThreadsPinningIT {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    //код сервиса есть в стеке и вызывающего потока, и потока, загружающего товар в кеш
+    private static final String SERVICE_PACKAGE = "ag.selm.catalogue.";
+
+    @Autowired
+    ProductService productService;
+
+    @Test
+    void findProducts_VirtualThreads_DoNotPinCarrierThreads() throws Exception {
+        //given
+        var recordingFile = Files.createTempFile("virtual-threads-pinning", ".jfr");
+        try (var recording = new Recording()) {
+            //по умолчанию событие пишется только при закреплении дольше 20 мс
+            recording.enable(PINNED_EVENT).withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+
+            //when
+            try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                var futures = new ArrayList<Future<?>>();
+                for (int i = 1; i <= 200; i++) {
+                    int productId = i;
+                    futures.add(executor.submit(() -> {
+                        this.productService.findAllProducts(null, 0, 20);
+                        this.productService.findProduct(productId);
+                    }));
+                }
+                for (var future : futures) {
+                    future.get();
+                }
+            }
+
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        //then
+        try {
+            var pinnedEvents = RecordingFile.readAllEvents(recordingFile).stream()
+                    .filter(event -> event.getEventType().getName().equals(PINNED_EVENT))
+                    .filter(VirtualThreadsPinningIT::isUnderServiceCall)
+                    .toList();
+            pinnedEvents.forEach(event -> log.warn("Virtual thread pinned for {}:\n{}",
+                    event.getDuration(), event.getStackTrace()));
+            assertEquals(0, pinnedEvents.size());
+        } finally {
+            Files.deleteIfExists(recordingFile);
+        }
+    }
+
+    private static boolean isUnderServiceCall(RecordedEvent event) {
+        return event.getStackTrace() != null && event.getStackTrace().getFrames().stream()
+                .map(frame -> frame.getMethod().getType().getName())
+                .anyMatch(type -> type.startsWith(SERVICE_PACKAGE));
+    }
+}
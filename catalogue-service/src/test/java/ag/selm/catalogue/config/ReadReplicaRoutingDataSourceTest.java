@@ -0,0 +1,72 @@
+package ag.selm.catalogue.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadReplicaRoutingDataSourceTest {
+
+    ReadReplicaRoutingDataSource dataSource = new ReadReplicaRoutingDataSource(
+            Mockito.mock(HikariDataSource.class),
+            List.of(Mockito.mock(HikariDataSource.class), Mockito.mock(HikariDataSource.class)));
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void determineCurrentLookupKey_NoTransaction_ReturnsPrimary() {
+        //given
+
+        //when
+        var result = this.dataSource.determineCurrentLookupKey();
+
+        //then
+        assertEquals("primary", result);
+    }
+
+    @Test
+    void determineCurrentLookupKey_ReadOnlyTransaction_ReturnsReplicasInTurn() {
+        //given
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        //when
+        var first = this.dataSource.determineCurrentLookupKey();
+        var second = this.dataSource.determineCurrentLookupKey();
+        var third = this.dataSource.determineCurrentLookupKey();
+
+        //then
+        assertEquals(0, first);
+        assertEquals(1, second);
+        assertEquals(0, third);
+    }
+
+    @Test
+    void determineCurrentLookupKey_ReadOnlyTransactionAfterWriteInSameRequest_ReturnsPrimary() {
+        //given
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        this.dataSource.determineCurrentLookupKey();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        //when
+        var result = this.dataSource.determineCurrentLookupKey();
+
+        //then
+        //чтение после записи в том же запросе видит собственные изменения
+        assertEquals("primary", result);
+    }
+}
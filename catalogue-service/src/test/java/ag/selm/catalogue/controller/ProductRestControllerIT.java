@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
@@ -17,6 +18,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @Transactional//бд в исходное состояние
@@ -46,6 +48,29 @@ class ProductRestControllerIT {
                         """));
     }
 
+    @Test
+    @Sql("/sql/products.sql")
+    void findProduct_ETagMatches_ReturnsNotModified() throws Exception {
+        //given
+        var eTag = this.mockMvc.perform(MockMvcRequestBuilders.get("/catalogue-api/products/1")
+                        .with(jwt().jwt(builder -> builder.claim("scope", "view_catalogue"))))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        var requestBuilder = MockMvcRequestBuilders.get("/catalogue-api/products/1")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .with(jwt().jwt(builder -> builder.claim("scope", "view_catalogue")));
+
+        //when
+        this.mockMvc.perform(requestBuilder)
+
+        //then
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+    }
+
     @Test
     @Sql("/sql/products.sql")
     void findProduct_ProductDoesNotExist_ReturnsNotFound() throws Exception {
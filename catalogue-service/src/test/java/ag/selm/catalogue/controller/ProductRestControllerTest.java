@@ -26,7 +26,7 @@ class ProductRestControllerTest {
     ProductRestController productRestController = new ProductRestController(productService, messageSource);
 
     @Test
-    void getProduct_ProductExists_ReturnsProduct(){
+    void findProduct_ProductExists_ReturnsProduct(){
         //given
         var product = new Product(1, "Название товара", "Описание товара");
 
@@ -34,10 +34,13 @@ class ProductRestControllerTest {
                 .when(this.productService).findProduct(1);
 
         //when
-        var result = this.productRestController.getProduct(1);
+        var result = this.productRestController.findProduct(1);
 
         //then
-        assertEquals(product, result);
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals(product, result.getBody());
+        //версия еще не назначена базой данных - ETag не передается
+        assertNull(result.getHeaders().getETag());
 
         //данный метод действительно был вызван
         verify(this.productService).findProduct(1);
@@ -47,14 +50,20 @@ class ProductRestControllerTest {
     }
 
     @Test
-    void getProduct_ProductDoesNotExist_ThrowsNoSuchElementException(){
+    void findProduct_ProductHasVersion_ReturnsProductWithETag(){
         //given
+        var product = new Product(1, "Название товара", "Описание товара", 42L);
+
+        doReturn(Optional.of(product))
+                .when(this.productService).findProduct(1);
 
         //when
-        var exception = assertThrows(NoSuchElementException.class, ()->this.productRestController.getProduct(1));
+        var result = this.productRestController.findProduct(1);
 
         //then
-        assertEquals("catalogue.errors.product.not_found", exception.getMessage());
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals(product, result.getBody());
+        assertEquals("\"42\"", result.getHeaders().getETag());
 
         //данный метод действительно был вызван
         verify(this.productService).findProduct(1);
@@ -64,15 +73,17 @@ class ProductRestControllerTest {
     }
 
     @Test
-    void findProduct_ReturnsProduct(){
+    void findProduct_ProductDoesNotExist_ThrowsNoSuchElementException(){
         //given
-        var product = new Product(1, "Название товара", "Описание товара");
 
         //when
-        var result = this.productRestController.findProduct(product);
+        var exception = assertThrows(NoSuchElementException.class, ()->this.productRestController.findProduct(1));
 
         //then
-        assertEquals(product, result);
+        assertEquals("catalogue.errors.product.not_found", exception.getMessage());
+
+        //данный метод действительно был вызван
+        verify(this.productService).findProduct(1);
 
         //к данному Mock объекту больше не было никаких обращений в рамках тестируемого метода
         verifyNoMoreInteractions(this.productService);
@@ -0,0 +1,82 @@
+package ag.selm.catalogue.controller;
+
+import ag.selm.catalogue.entity.ProductsImportReport;
+import ag.selm.catalogue.service.ProductService;
+import ag.selm.catalogue.service.ProductsBulkService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.context.MessageSource;
+import org.springframework.http.HttpStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductsAdminRestControllerTest {
+
+    ProductsBulkService productsBulkService = Mockito.mock(ProductsBulkService.class);
+
+    ProductService productService = Mockito.mock(ProductService.class);
+
+    MessageSource messageSource = Mockito.mock(MessageSource.class);
+
+    ProductsAdminRestController controller = new ProductsAdminRestController(this.productsBulkService,
+            this.productService, this.messageSource);
+
+    @Test
+    void exportProducts_StreamsCsvFromBulkService() throws IOException {
+        //given
+        var outputStream = new ByteArrayOutputStream();
+
+        //when
+        var result = this.controller.exportProducts(10);
+        //выгрузка начинается только при записи тела ответа
+        verifyNoInteractions(this.productsBulkService);
+        result.getBody().writeTo(outputStream);
+
+        //then
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals(ProductsAdminRestController.TEXT_CSV, result.getHeaders().getContentType());
+
+        //данный метод действительно был вызван
+        verify(this.productsBulkService).exportProducts(10, outputStream);
+
+        //к данному Mock объекту больше не было никаких обращений в рамках тестируемого метода
+        verifyNoMoreInteractions(this.productsBulkService);
+    }
+
+    @Test
+    void importProducts_ReturnsReportWithLocalizedErrors(){
+        //given
+        var inputStream = new ByteArrayInputStream(new byte[0]);
+
+        doReturn(new ProductsImportReport(3, 1, 1, 1,
+                List.of(new ProductsImportReport.RejectedLine(2, "title_is_null"))))
+                .when(this.productsBulkService).importProducts(inputStream);
+        doReturn("Название товара должно быть указано")
+                .when(this.messageSource).getMessage("catalogue.products.import.errors.title_is_null",
+                        new Object[0], "title_is_null", Locale.of("ru"));
+
+        //when
+        var result = this.controller.importProducts(inputStream, Locale.of("ru"));
+
+        //then
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals(new ProductsImportReport(3, 1, 1, 1,
+                List.of(new ProductsImportReport.RejectedLine(2, "Название товара должно быть указано"))),
+                result.getBody());
+
+        //данный метод действительно был вызван
+        verify(this.productsBulkService).importProducts(inputStream);
+        //товары изменились - индекс подсказок перестроен
+        verify(this.productService).rebuildTitleIndex();
+
+        //к данному Mock объекту больше не было никаких обращений в рамках тестируемого метода
+        verifyNoMoreInteractions(this.productsBulkService, this.productService);
+    }
+}
@@ -0,0 +1,80 @@
+package ag.selm.catalogue.controller;
+
+import ag.selm.catalogue.controller.payload.NewProductPayload;
+import ag.selm.catalogue.controller.payload.ProductBatchItemResult;
+import ag.selm.catalogue.entity.Product;
+import ag.selm.catalogue.service.ProductService;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.context.MessageSource;
+import org.springframework.http.HttpStatus;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductsBatchRestControllerTest {
+
+    ProductService productService = Mockito.mock(ProductService.class);
+
+    MessageSource messageSource = Mockito.mock(MessageSource.class);
+
+    ProductsBatchRestController controller = new ProductsBatchRestController(this.productService,
+            Validation.buildDefaultValidatorFactory().getValidator(), this.messageSource);
+
+    @Test
+    void createProducts_SomeItemsAreInvalid_CreatesValidItemsAndRejectsInvalid(){
+        //given
+        var payloads = Arrays.asList(
+                new NewProductPayload("Новый товар", "Описание нового товара"),
+                new NewProductPayload("  ", null),
+                null,
+                new NewProductPayload("Ещё один товар", null));
+
+        doReturn(List.of(new Product(51, "Новый товар", "Описание нового товара"),
+                new Product(52, "Ещё один товар", null)))
+                .when(this.productService).createProducts(List.of(
+                        new Product(null, "Новый товар", "Описание нового товара"),
+                        new Product(null, "Ещё один товар", null)));
+        doReturn("Товар должен быть указан")
+                .when(this.messageSource).getMessage("catalogue.products.batch.errors.payload_is_null",
+                        new Object[0], "catalogue.products.batch.errors.payload_is_null", Locale.of("ru"));
+
+        //when
+        var result = this.controller.createProducts(payloads, Locale.of("ru"));
+
+        //then
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals(List.of(
+                new ProductBatchItemResult(0, 51, List.of()),
+                new ProductBatchItemResult(1, null,
+                        List.of("{catalogue.products.create.errors.title_size_is_invalid}")),
+                new ProductBatchItemResult(2, null, List.of("Товар должен быть указан")),
+                new ProductBatchItemResult(3, 52, List.of())), result.getBody());
+
+        //все корректные товары переданы в сервис одним вызовом
+        verify(this.productService).createProducts(List.of(
+                new Product(null, "Новый товар", "Описание нового товара"),
+                new Product(null, "Ещё один товар", null)));
+        verifyNoMoreInteractions(this.productService);
+    }
+
+    @Test
+    void createProducts_AllItemsAreInvalid_DoesNotCallService(){
+        //given
+        var payloads = List.of(new NewProductPayload(null, null));
+
+        //when
+        var result = this.controller.createProducts(payloads, Locale.of("ru"));
+
+        //then
+        assertEquals(List.of(new ProductBatchItemResult(0, null,
+                List.of("{catalogue.products.create.errors.title_is_null}"))), result.getBody());
+
+        verifyNoInteractions(this.productService);
+    }
+}
@@ -49,6 +49,98 @@ class ProductsRestControllerIT {
                 );
     }
 
+    @Test
+    @Sql("/sql/products.sql")
+    void findProducts_LimitIsSet_ReturnsFirstPageWithNextCursor() throws Exception {
+        // given
+        var requestBuilder = MockMvcRequestBuilders.get("/catalogue-api/products")
+                .param("limit", "2")
+                .with(jwt().jwt(builder -> builder.claim("scope", "view_catalogue")));
+
+        // when
+        this.mockMvc.perform(requestBuilder)
+                // then
+                .andDo(print())
+                .andExpectAll(
+                        status().isOk(),
+                        header().string(ProductsRestController.NEXT_CURSOR_HEADER, "2"),
+                        content().json("""
+                                [
+                                    {"id": 1, "title": "Товар №1", "details": "Описание товара №1"},
+                                    {"id": 2, "title": "Шоколадка", "details": "Очень вкусная шоколадка"}
+                                ]""", true)
+                );
+    }
+
+    @Test
+    @Sql("/sql/products.sql")
+    void findProducts_ViewIsSummary_ReturnsProductsWithoutDetails() throws Exception {
+        // given
+        var requestBuilder = MockMvcRequestBuilders.get("/catalogue-api/products")
+                .param("view", "summary")
+                .param("filter", "товар")
+                .with(jwt().jwt(builder -> builder.claim("scope", "view_catalogue")));
+
+        // when
+        this.mockMvc.perform(requestBuilder)
+                // then
+                .andDo(print())
+                .andExpectAll(
+                        status().isOk(),
+                        content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON),
+                        content().json("""
+                                [
+                                    {"id": 1, "title": "Товар №1"},
+                                    {"id": 3, "title": "Товар №3"}
+                                ]""", true)
+                );
+    }
+
+    @Test
+    @Sql("/sql/products.sql")
+    void findProducts_IdsAreSet_ReturnsOnlyRequestedProducts() throws Exception {
+        // given
+        var requestBuilder = MockMvcRequestBuilders.get("/catalogue-api/products")
+                .param("ids", "3,1,404")
+                .with(jwt().jwt(builder -> builder.claim("scope", "view_catalogue")));
+
+        // when
+        this.mockMvc.perform(requestBuilder)
+                // then
+                .andDo(print())
+                .andExpectAll(
+                        status().isOk(),
+                        content().json("""
+                                [
+                                    {"id": 1, "title": "Товар №1", "details": "Описание товара №1"},
+                                    {"id": 3, "title": "Товар №3", "details": "Описание товара №3"}
+                                ]""", true)
+                );
+    }
+
+    @Test
+    @Sql("/sql/products.sql")
+    void findProducts_AfterIsSet_ReturnsNextPage() throws Exception {
+        // given
+        var requestBuilder = MockMvcRequestBuilders.get("/catalogue-api/products")
+                .param("after", "2")
+                .param("limit", "2")
+                .with(jwt().jwt(builder -> builder.claim("scope", "view_catalogue")));
+
+        // when
+        this.mockMvc.perform(requestBuilder)
+                // then
+                .andDo(print())
+                .andExpectAll(
+                        status().isOk(),
+                        content().json("""
+                                [
+                                    {"id": 3, "title": "Товар №3", "details": "Описание товара №3"},
+                                    {"id": 4, "title": "Кефирка бутыла", "details": "Жирность 3,2%"}
+                                ]""", true)
+                );
+    }
+
     @Test
     @Sql("/sql/products.sql")
     void findProducts_UserIsNotAuthorized_ReturnsForbidden() throws Exception{
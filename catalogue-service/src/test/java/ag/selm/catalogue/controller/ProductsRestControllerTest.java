@@ -2,19 +2,36 @@ package ag.selm.catalogue.controller;
 
 import ag.selm.catalogue.controller.payload.NewProductPayload;
 import ag.selm.catalogue.entity.Product;
+import ag.selm.catalogue.entity.ProductSummary;
+import ag.selm.catalogue.entity.ProductsCount;
+import ag.selm.catalogue.entity.ProductsCountMode;
+import ag.selm.catalogue.entity.ProductsWatermark;
 import ag.selm.catalogue.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.validation.BindException;
 import org.springframework.validation.FieldError;
 import org.springframework.validation.MapBindingResult;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -23,7 +40,12 @@ class ProductsRestControllerTest {
 
     ProductService productService = Mockito.mock(ProductService.class);
 
-    ProductsRestController productsRestController = new ProductsRestController(this.productService);
+    ProductsRestController productsRestController = new ProductsRestController(this.productService,
+            new ObjectMapper());
+
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/catalogue-api/products");
+
+    MockHttpServletResponse response = new MockHttpServletResponse();
 
     @Test
     void findProducts_ReturnsProductsList(){
@@ -33,22 +55,237 @@ class ProductsRestControllerTest {
 
         doReturn(List.of(new Product(1, "товар №1", "Описание товара №1"),
                 new Product(2, "товар №2", "Описание товара №2")))
-                .when(this.productService).findAllProducts("товар");
+                .when(this.productService).findAllProducts("товар", 0, 20);
+
+        doReturn(new ProductsWatermark(10L)).when(this.productService).findProductsWatermark();
 
         //when
-        var result = this.productsRestController.findProducts(filter, principal);
+        var result = this.productsRestController.findProducts(filter, 0, 20, principal,
+                new ServletWebRequest(this.request, this.response));
 
         //then
+        assertEquals(HttpStatus.OK, result.getStatusCode());
         assertEquals(List.of(new Product(1, "товар №1", "Описание товара №1"),
-                new Product(2, "товар №2", "Описание товара №2")), result);
+                new Product(2, "товар №2", "Описание товара №2")), result.getBody());
+        //страница неполная - следующей страницы нет
+        assertNull(result.getHeaders().getFirst(ProductsRestController.NEXT_CURSOR_HEADER));
+
+        //данный метод действительно был вызван
+        verify(this.productService).findProductsWatermark();
+        verify(this.productService).findAllProducts("товар", 0, 20);
+
+        //к данному Mock объекту больше не было никаких обращений в рамках тестируемого метода
+        verifyNoMoreInteractions(this.productService);
+    }
+
+    @Test
+    void findProducts_PageIsFull_ReturnsNextCursor(){
+        //given
+        var principal = Mockito.mock(JwtAuthenticationToken.class);
+
+        doReturn(List.of(new Product(3, "товар №3", "Описание товара №3"),
+                new Product(4, "товар №4", "Описание товара №4")))
+                .when(this.productService).findAllProducts(null, 2, 2);
+
+        doReturn(new ProductsWatermark(10L)).when(this.productService).findProductsWatermark();
+
+        //when
+        var result = this.productsRestController.findProducts(null, 2, 2, principal,
+                new ServletWebRequest(this.request, this.response));
+
+        //then
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals("4", result.getHeaders().getFirst(ProductsRestController.NEXT_CURSOR_HEADER));
 
         //данный метод действительно был вызван
-        verify(this.productService).findAllProducts("товар");
+        verify(this.productService).findProductsWatermark();
+        verify(this.productService).findAllProducts(null, 2, 2);
 
         //к данному Mock объекту больше не было никаких обращений в рамках тестируемого метода
         verifyNoMoreInteractions(this.productService);
     }
 
+    @Test
+    void findProducts_LimitIsTooBig_UsesMaxPageSize(){
+        //given
+        var principal = Mockito.mock(JwtAuthenticationToken.class);
+
+        doReturn(List.of())
+                .when(this.productService).findAllProducts(null, 0, 100);
+
+        doReturn(new ProductsWatermark(10L)).when(this.productService).findProductsWatermark();
+
+        //when
+        var result = this.productsRestController.findProducts(null, 0, 100_000, principal,
+                new ServletWebRequest(this.request, this.response));
+
+        //then
+        assertEquals(List.of(), result.getBody());
+
+        //данный метод действительно был вызван
+        verify(this.productService).findProductsWatermark();
+        verify(this.productService).findAllProducts(null, 0, 100);
+
+        //к данному Mock объекту больше не было никаких обращений в рамках тестируемого метода
+        verifyNoMoreInteractions(this.productService);
+    }
+
+    @Test
+    void findProducts_ETagMatches_ReturnsNotModified(){
+        //given
+        var principal = Mockito.mock(JwtAuthenticationToken.class);
+        this.request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"10\"");
+
+        doReturn(new ProductsWatermark(10L)).when(this.productService).findProductsWatermark();
+
+        //when
+        var result = this.productsRestController.findProducts(null, 0, 20, principal,
+                new ServletWebRequest(this.request, this.response));
+
+        //then
+        assertNull(result);
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), this.response.getStatus());
+        assertEquals("\"10\"", this.response.getHeader(HttpHeaders.ETAG));
+
+        //страница товаров не запрашивалась
+        verify(this.productService).findProductsWatermark();
+        verifyNoMoreInteractions(this.productService);
+    }
+
+    @Test
+    void findProductSummaries_PageIsFull_ReturnsSummariesWithNextCursor(){
+        //given
+        doReturn(List.of(new ProductSummary(1, "товар №1"), new ProductSummary(3, "товар №3")))
+                .when(this.productService).findAllProductSummaries("товар", 0, 2);
+
+        doReturn(new ProductsWatermark(10L)).when(this.productService).findProductsWatermark();
+
+        //when
+        var result = this.productsRestController.findProductSummaries("товар", 0, 2,
+                new ServletWebRequest(this.request, this.response));
+
+        //then
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals(List.of(new ProductSummary(1, "товар №1"), new ProductSummary(3, "товар №3")),
+                result.getBody());
+        assertEquals("3", result.getHeaders().getFirst(ProductsRestController.NEXT_CURSOR_HEADER));
+
+        //данный метод действительно был вызван
+        verify(this.productService).findProductsWatermark();
+        verify(this.productService).findAllProductSummaries("товар", 0, 2);
+
+        //к данному Mock объекту больше не было никаких обращений в рамках тестируемого метода
+        verifyNoMoreInteractions(this.productService);
+    }
+
+    @Test
+    void findProductsByIds_ReturnsProducts(){
+        //given
+        doReturn(List.of(new Product(1, "товар №1", "Описание товара №1"),
+                new Product(3, "товар №3", "Описание товара №3")))
+                .when(this.productService).findProductsByIds(Set.of(1, 3));
+
+        //when
+        var result = this.productsRestController.findProductsByIds(Set.of(1, 3));
+
+        //then
+        assertEquals(List.of(new Product(1, "товар №1", "Описание товара №1"),
+                new Product(3, "товар №3", "Описание товара №3")), result);
+
+        //данный метод действительно был вызван
+        verify(this.productService).findProductsByIds(Set.of(1, 3));
+
+        //к данному Mock объекту больше не было никаких обращений в рамках тестируемого метода
+        verifyNoMoreInteractions(this.productService);
+    }
+
+    @Test
+    void countProducts_ReturnsCountFromService(){
+        //given
+        doReturn(new ProductsCount(120_000, false))
+                .when(this.productService).countProducts("товар", ProductsCountMode.AUTO);
+
+        //when
+        var result = this.productsRestController.countProducts("товар", ProductsCountMode.AUTO);
+
+        //then
+        assertEquals(new ProductsCount(120_000, false), result);
+
+        //данный метод действительно был вызван
+        verify(this.productService).countProducts("товар", ProductsCountMode.AUTO);
+
+        //к данному Mock объекту больше не было никаких обращений в рамках тестируемого метода
+        verifyNoMoreInteractions(this.productService);
+    }
+
+    @Test
+    void suggestProducts_LimitIsTooBig_UsesMaxSuggestions(){
+        //given
+        doReturn(List.of(new ProductSummary(1, "товар №1")))
+                .when(this.productService).suggestProducts("тов", 20);
+
+        //when
+        var result = this.productsRestController.suggestProducts("тов", 1000);
+
+        //then
+        assertEquals(List.of(new ProductSummary(1, "товар №1")), result);
+
+        //данный метод действительно был вызван
+        verify(this.productService).suggestProducts("тов", 20);
+
+        //к данному Mock объекту больше не было никаких обращений в рамках тестируемого метода
+        verifyNoMoreInteractions(this.productService);
+    }
+
+    @Test
+    void searchProducts_HasNextPage_ReturnsProductsWithNextPage(){
+        //given
+        doReturn(new SliceImpl<>(List.of(new Product(3, "товар №3", "Описание товара №3")),
+                PageRequest.of(1, 1), true))
+                .when(this.productService).searchProducts("товар", 1, 1);
+
+        //when
+        var result = this.productsRestController.searchProducts("товар", 1, 1);
+
+        //then
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals(List.of(new Product(3, "товар №3", "Описание товара №3")), result.getBody());
+        assertEquals("2", result.getHeaders().getFirst(ProductsRestController.NEXT_PAGE_HEADER));
+
+        //данный метод действительно был вызван
+        verify(this.productService).searchProducts("товар", 1, 1);
+
+        //к данному Mock объекту больше не было никаких обращений в рамках тестируемого метода
+        verifyNoMoreInteractions(this.productService);
+    }
+
+    @Test
+    void streamProducts_WritesProductsAsNdjson() throws IOException {
+        //given
+        doAnswer(invocation -> {
+            Consumer<Product> consumer = invocation.getArgument(1);
+            consumer.accept(new Product(1, "товар №1", "Описание товара №1"));
+            consumer.accept(new Product(2, "товар №2", "Описание товара №2"));
+            return null;
+        }).when(this.productService).streamAllProducts(eq("товар"), any());
+        var outputStream = new ByteArrayOutputStream();
+
+        //when
+        var result = this.productsRestController.streamProducts("товар");
+        result.getBody().writeTo(outputStream);
+
+        //then
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals(MediaType.APPLICATION_NDJSON, result.getHeaders().getContentType());
+        assertEquals("""
+                {"id":1,"title":"товар №1","details":"Описание товара №1"}
+                {"id":2,"title":"товар №2","details":"Описание товара №2"}
+                """, outputStream.toString(StandardCharsets.UTF_8));
+
+        verify(this.productService).streamAllProducts(eq("товар"), any());
+        verifyNoMoreInteractions(this.productService);
+    }
+
     @Test
     void createProduct_RequestIsValid_ReturnsNoContent() throws BindException {
         //given
@@ -0,0 +1,49 @@
+package ag.selm.catalogue.event;
+
+import ag.selm.catalogue.entity.ProductEvent;
+import ag.selm.catalogue.entity.ProductEventType;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CompositeProductEventSinkTest {
+
+    ProductEventSink applicationSink = Mockito.mock(ProductEventSink.class);
+
+    ProductEventSink webhookSink = Mockito.mock(ProductEventSink.class);
+
+    CompositeProductEventSink sink = new CompositeProductEventSink(List.of(this.applicationSink, this.webhookSink));
+
+    @Test
+    void publish_PublishesEventsToEverySinkInOrder() {
+        //given
+        var events = List.of(new ProductEvent(1L, 1, ProductEventType.UPDATED, Instant.now()));
+
+        //when
+        this.sink.publish(events);
+
+        //then
+        InOrder inOrder = inOrder(this.applicationSink, this.webhookSink);
+        inOrder.verify(this.applicationSink).publish(events);
+        inOrder.verify(this.webhookSink).publish(events);
+        verifyNoMoreInteractions(this.applicationSink, this.webhookSink);
+    }
+
+    @Test
+    void publish_SinkFails_ThrowsException() {
+        //given
+        var events = List.of(new ProductEvent(1L, 1, ProductEventType.DELETED, Instant.now()));
+        doThrow(new IllegalStateException()).when(this.webhookSink).publish(events);
+
+        //when
+        //then
+        assertThrows(IllegalStateException.class, () -> this.sink.publish(events));
+        verify(this.applicationSink).publish(events);
+    }
+}
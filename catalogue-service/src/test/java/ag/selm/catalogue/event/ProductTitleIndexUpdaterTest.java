@@ -0,0 +1,70 @@
+package ag.selm.catalogue.event;
+
+import ag.selm.catalogue.entity.ProductEvent;
+import ag.selm.catalogue.entity.ProductEventType;
+import ag.selm.catalogue.entity.ProductSummary;
+import ag.selm.catalogue.repository.ProductRepository;
+import ag.selm.catalogue.service.ProductTitleIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductTitleIndexUpdaterTest {
+
+    @Mock
+    ProductRepository productRepository;
+
+    @Mock
+    ProductTitleIndex productTitleIndex;
+
+    @InjectMocks
+    ProductTitleIndexUpdater updater;
+
+    @Test
+    void onProductEvent_ProductIsUpdated_PutsCurrentTitle() {
+        //given
+        doReturn(Optional.of(new ProductSummary(1, "Новое название")))
+                .when(this.productRepository).findSummaryById(1);
+
+        //when
+        this.updater.onProductEvent(new ProductEvent(1L, 1, ProductEventType.UPDATED, Instant.now()));
+
+        //then
+        verify(this.productTitleIndex).put(1, "Новое название");
+        verifyNoMoreInteractions(this.productTitleIndex);
+    }
+
+    @Test
+    void onProductEvent_ProductDoesNotExist_RemovesProduct() {
+        //given
+        doReturn(Optional.empty()).when(this.productRepository).findSummaryById(1);
+
+        //when
+        this.updater.onProductEvent(new ProductEvent(1L, 1, ProductEventType.CREATED, Instant.now()));
+
+        //then
+        verify(this.productTitleIndex).remove(1);
+        verifyNoMoreInteractions(this.productTitleIndex);
+    }
+
+    @Test
+    void onProductEvent_ProductIsDeleted_RemovesProductWithoutReading() {
+        //given
+
+        //when
+        this.updater.onProductEvent(new ProductEvent(1L, 1, ProductEventType.DELETED, Instant.now()));
+
+        //then
+        verify(this.productTitleIndex).remove(1);
+        verifyNoInteractions(this.productRepository);
+        verifyNoMoreInteractions(this.productTitleIndex);
+    }
+}
@@ -0,0 +1,59 @@
+package ag.selm.catalogue.event;
+
+import ag.selm.catalogue.entity.ProductEvent;
+import ag.selm.catalogue.entity.ProductEventType;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withNoContent;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+
+class WebhookProductEventSinkTest {
+
+    RestClient.Builder restClientBuilder = RestClient.builder();
+
+    //локальная заглушка получателя вместо узлов каталога
+    MockRestServiceServer server = MockRestServiceServer.bindTo(this.restClientBuilder).build();
+
+    WebhookProductEventSink sink = new WebhookProductEventSink(this.restClientBuilder.build(),
+            List.of(URI.create("http://catalogue-2/catalogue-api/admin/products/events")));
+
+    @Test
+    void publish_PostsEventsAsJsonArray() {
+        //given
+        this.server.expect(requestTo("http://catalogue-2/catalogue-api/admin/products/events"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].productId").value(1))
+                .andExpect(jsonPath("$[0].type").value("UPDATED"))
+                .andRespond(withNoContent());
+
+        //when
+        this.sink.publish(List.of(new ProductEvent(1L, 1, ProductEventType.UPDATED, Instant.now())));
+
+        //then
+        this.server.verify();
+    }
+
+    @Test
+    void publish_ReceiverFails_ThrowsException() {
+        //given
+        this.server.expect(requestTo("http://catalogue-2/catalogue-api/admin/products/events"))
+                .andRespond(withServerError());
+
+        //when
+        //then
+        assertThrows(HttpServerErrorException.class, () -> this.sink.publish(
+                List.of(new ProductEvent(1L, 1, ProductEventType.DELETED, Instant.now()))));
+    }
+}
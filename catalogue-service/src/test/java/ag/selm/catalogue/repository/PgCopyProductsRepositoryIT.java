@@ -0,0 +1,179 @@
+package ag.selm.catalogue.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlMergeMode;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ag.selm.catalogue.entity.ProductsImportReport;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@JdbcTest
+@Import(PgCopyProductsRepository.class)
+@Sql("/sql/products.sql")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class PgCopyProductsRepositoryIT {
+
+    @Autowired
+    PgCopyProductsRepository pgCopyProductsRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    void copyProductsTo_SinceIdIsSet_WritesProductsAfterSinceIdAsCsv(){
+        //given
+        var outputStream = new ByteArrayOutputStream();
+
+        //when
+        var rows = this.pgCopyProductsRepository.copyProductsTo(2, outputStream);
+
+        //then
+        assertEquals(2, rows);
+        assertEquals("""
+                id,c_title,c_details
+                3,Товар №3,Описание товара №3
+                4,Кефирка бутыла,"Жирность 3,2%"
+                """, outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    //значения последовательности не откатываются вместе с транзакцией теста, а остальные тесты
+    //рассчитывают на нетронутую последовательность (первый созданный товар получает id 1)
+    //товары фикстуры вставлены с явными идентификаторами, последовательность сдвигается за них
+    @Sql(statements = "select setval('catalogue.t_product_id_seq', 100)")
+    @Sql(statements = {"select setval('catalogue.t_product_id_seq', 1, false)",
+            "select setval('catalogue.t_product_event_id_seq', 1, false)"},
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    @SqlMergeMode(SqlMergeMode.MergeMode.MERGE)
+    void importProducts_InsertsNewUpdatesExistingAndRejectsInvalidLines(){
+        //given
+        var csv = """
+                id,c_title,c_details
+                ,Новый товар,Описание нового товара
+                1,Обновленный товар №1,
+                ,ab,
+                2,Шоколадка молочная,Очень вкусная шоколадка
+                2,Дубль шоколадки,
+                x,Товар с плохим id,
+                """;
+
+        //when
+        var report = this.pgCopyProductsRepository.importProducts(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        //then
+        assertEquals(new ProductsImportReport(6, 1, 2, 3, List.of(
+                new ProductsImportReport.RejectedLine(3, "title_size_is_invalid"),
+                new ProductsImportReport.RejectedLine(5, "id_is_duplicated"),
+                new ProductsImportReport.RejectedLine(6, "id_is_invalid"))), report);
+        assertEquals("Обновленный товар №1", this.jdbcTemplate.queryForObject(
+                "select c_title from catalogue.t_product where id = 1", String.class));
+        assertEquals("Шоколадка молочная", this.jdbcTemplate.queryForObject(
+                "select c_title from catalogue.t_product where id = 2", String.class));
+        assertEquals(1, this.jdbcTemplate.queryForObject(
+                "select count(*) from catalogue.t_product where c_title = 'Новый товар' and id > 4", Integer.class));
+        //изменения попадают в журнал событий и будут разосланы остальным узлам
+        assertEquals(List.of("1:UPDATED", "2:UPDATED", "new:CREATED"), this.jdbcTemplate.queryForList("""
+                select case when e.c_product_id > 4 then 'new' else e.c_product_id::text end || ':' || e.c_type
+                from catalogue.t_product_event e
+                order by e.c_product_id""", String.class));
+    }
+
+    @Test
+    //загрузка и параллельное удаление идут в разных зафиксированных транзакциях,
+    //поэтому каталог и журнал событий очищаются после теста
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Sql(statements = "select setval('catalogue.t_product_id_seq', 100)")
+    @Sql(statements = {"delete from catalogue.t_product_event", "delete from catalogue.t_product",
+            "select setval('catalogue.t_product_id_seq', 1, false)",
+            "select setval('catalogue.t_product_event_id_seq', 1, false)"},
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    @SqlMergeMode(SqlMergeMode.MergeMode.MERGE)
+    void importProducts_ProductIsDeletedDuringImport_CreatesProductWithNewId() throws Exception {
+        //given
+        var csv = """
+                id,c_title,c_details
+                1,Обновленный товар №1,
+                """;
+        var transactionTemplate = new TransactionTemplate(this.transactionManager);
+
+        try (Connection connection = this.dataSource.getConnection()) {
+            //параллельная транзакция удаляет товар и держит блокировку строки до фиксации
+            connection.setAutoCommit(false);
+            try (var statement = connection.createStatement()) {
+                statement.executeUpdate("delete from catalogue.t_product where id = 1");
+            }
+
+            //when
+            var report = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status ->
+                    this.pgCopyProductsRepository.importProducts(
+                            new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)))));
+            //загрузка дошла до блокировки изменяемого товара, удаление фиксируется между проверкой и MERGE
+            awaitImportWaitsForLock();
+            connection.commit();
+
+            //then
+            assertEquals(new ProductsImportReport(1, 1, 0, 0, List.of()), report.get(10, TimeUnit.SECONDS));
+        }
+
+        assertEquals(List.of("CREATED"), this.jdbcTemplate.queryForList("""
+                select e.c_type
+                from catalogue.t_product_event e
+                         join catalogue.t_product p on p.id = e.c_product_id
+                where p.c_title = 'Обновленный товар №1'
+                  and p.id <> 1""", String.class));
+    }
+
+    @Test
+    void importProducts_CsvIsMalformed_ThrowsIllegalArgumentException(){
+        //given
+        var csv = """
+                id,c_title,c_details
+                1,Товар,Описание,Лишняя колонка
+                """;
+
+        //when
+        var exception = assertThrows(IllegalArgumentException.class, () -> this.pgCopyProductsRepository
+                .importProducts(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))));
+
+        //then
+        assertEquals("catalogue.products.import.errors.malformed_csv", exception.getMessage());
+    }
+
+    private void awaitImportWaitsForLock() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (this.jdbcTemplate.queryForObject("""
+                select count(*)
+                from pg_stat_activity
+                where datname = current_database()
+                  and wait_event_type = 'Lock'""", Integer.class) == 0) {
+            assertTrue(System.nanoTime() < deadline, "Import did not reach the row lock");
+            Thread.sleep(50);
+        }
+    }
+}
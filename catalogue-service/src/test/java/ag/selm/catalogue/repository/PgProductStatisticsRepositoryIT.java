@@ -0,0 +1,53 @@
+package ag.selm.catalogue.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@JdbcTest
+@Import(PgProductStatisticsRepository.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Sql("/sql/products.sql")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class PgProductStatisticsRepositoryIT {
+
+    @Autowired
+    PgProductStatisticsRepository pgProductStatisticsRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void estimateCount_TableIsAnalyzed_ReturnsReltuples(){
+        //given
+        //analyze учитывает строки, вставленные текущей транзакцией, и откатывается вместе с ней
+        this.jdbcTemplate.execute("analyze catalogue.t_product");
+
+        //when
+        var result = this.pgProductStatisticsRepository.estimateCount();
+
+        //then
+        assertEquals(4, result);
+    }
+
+    @Test
+    void estimateCount_FilterIsSet_ReturnsPlannerEstimate(){
+        //given
+        this.jdbcTemplate.execute("analyze catalogue.t_product");
+
+        //when
+        var result = this.pgProductStatisticsRepository.estimateCount("%товар%");
+
+        //then
+        //планировщик не оценивает выборку меньше чем в одну строку
+        assertTrue(result >= 1 && result <= 4);
+    }
+}
@@ -1,14 +1,20 @@
 package ag.selm.catalogue.repository;
 
 import ag.selm.catalogue.entity.Product;
+import ag.selm.catalogue.entity.ProductSummary;
+import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -16,11 +22,15 @@ import static org.junit.jupiter.api.Assertions.*;
 @Sql("/sql/products.sql")
 @Transactional
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Slf4j
 class ProductRepositoryIT {
 
     @Autowired
     ProductRepository productRepository;
 
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
     @Test
     void findAllByTitleLikeIgnoreCase_ReturnsFilteredProductsList(){
         //given
@@ -34,4 +44,191 @@ class ProductRepositoryIT {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    void findAllByIdGreaterThanOrderById_ReturnsPageAfterCursor(){
+        //given
+        var after = 1;
+
+        //when
+        var products = this.productRepository.findAllByIdGreaterThanOrderById(after, PageRequest.ofSize(2));
+
+        //then
+        assertEquals(List.of(new Product(2, "Шоколадка", "Очень вкусная шоколадка"),
+                new Product(3, "Товар №3", "Описание товара №3")), products);
+    }
+
+    @Test
+    void findAllByTitleLikeIgnoreCase_AfterIsSet_ReturnsFilteredPageAfterCursor(){
+        //given
+        var filter = "%товар%";
+
+        //when
+        var products = this.productRepository.findAllByTitleLikeIgnoreCase(filter, 1, PageRequest.ofSize(10));
+
+        //then
+        assertEquals(List.of(new Product(3, "Товар №3", "Описание товара №3")), products);
+    }
+
+    @Test
+    void findAllSummariesByTitleLikeIgnoreCase_ReturnsFilteredSummariesAfterCursor(){
+        //given
+        var filter = "%товар%";
+
+        //when
+        var summaries = this.productRepository.findAllSummariesByTitleLikeIgnoreCase(filter, 0, PageRequest.ofSize(10));
+
+        //then
+        assertEquals(List.of(new ProductSummary(1, "Товар №1"), new ProductSummary(3, "Товар №3")), summaries);
+    }
+
+    @Test
+    void findWatermark_ProductsAreChanged_ReturnsChangedWatermark(){
+        //given
+        var watermark = this.productRepository.findWatermark();
+
+        //when
+        //каждый оператор увеличивает счетчик один раз, независимо от версий товаров
+        this.productRepository.updateTitleAndDetailsById(1, "Новое название", null);
+        this.jdbcTemplate.update("""
+                insert into catalogue.t_product (id, c_title, c_details)
+                values (5, 'Товар №5', null), (6, 'Товар №6', null)""");
+        this.productRepository.deleteProductById(4);
+        var result = this.productRepository.findWatermark();
+
+        //then
+        assertEquals(watermark.changes() + 3, result.changes());
+    }
+
+    @Test
+    void findSummaryById_ReturnsSummary(){
+        //given
+
+        //when
+        var summary = this.productRepository.findSummaryById(2);
+
+        //then
+        assertEquals(Optional.of(new ProductSummary(2, "Шоколадка")), summary);
+    }
+
+    @Test
+    void countByTitleLikeIgnoreCase_ReturnsFilteredCount(){
+        //given
+        var filter = "%товар%";
+
+        //when
+        var count = this.productRepository.countByTitleLikeIgnoreCase(filter);
+
+        //then
+        assertEquals(2, count);
+    }
+
+    @Test
+    void findAllSummariesByIdGreaterThan_ReturnsSummariesPage(){
+        //given
+        var after = 1;
+
+        //when
+        var summaries = this.productRepository.findAllSummariesByIdGreaterThan(after, PageRequest.ofSize(1));
+
+        //then
+        assertEquals(List.of(new ProductSummary(2, "Шоколадка")), summaries);
+    }
+
+    @Test
+    void searchAllByQuery_ReturnsProductsMatchingTitleOrDetails(){
+        //given
+        //"вкусные" найдется только в описании благодаря русскому стеммингу
+        var query = "вкусные";
+
+        //when
+        var products = this.productRepository.searchAllByQuery(query, PageRequest.of(0, 10));
+
+        //then
+        assertEquals(List.of(new Product(2, "Шоколадка", "Очень вкусная шоколадка")), products.getContent());
+        assertFalse(products.hasNext());
+    }
+
+    @Test
+    void searchAllByQuery_PageIsFull_ReturnsSliceWithNext(){
+        //given
+        var query = "товар";
+
+        //when
+        var products = this.productRepository.searchAllByQuery(query, PageRequest.of(0, 1));
+
+        //then
+        //у товаров №1 и №3 одинаковый ранг, порядок определяется идентификатором
+        assertEquals(List.of(new Product(1, "Товар №1", "Описание товара №1")), products.getContent());
+        assertTrue(products.hasNext());
+    }
+
+    @Test
+    void streamAllByTitleLikeIgnoreCase_ReturnsFilteredProductsStream(){
+        //given
+        var filter = "%шоколадка%";
+
+        //when
+        List<Product> products;
+        try (var stream = this.productRepository.streamAllByTitleLikeIgnoreCase(filter)) {
+            products = stream.toList();
+        }
+
+        //then
+        assertEquals(List.of(new Product(2, "Шоколадка", "Очень вкусная шоколадка")), products);
+    }
+
+    //замер фильтрации на 1 000 000 строк с триграммным индексом и без него
+    //запуск: mvn verify -Dit.test=ProductRepositoryIT -Dselmag.benchmark=true
+    //все изменения откатываются вместе с транзакцией теста
+    @Test
+    @EnabledIfSystemProperty(named = "selmag.benchmark", matches = "true")
+    void findAllByTitleLikeIgnoreCase_MillionProducts_Benchmark(){
+        //given
+        this.jdbcTemplate.update("""
+                insert into catalogue.t_product (id, c_title)
+                select i + 10, 'Товар ' || substr(md5(i::text), 1, 16)
+                from generate_series(1, 1000000) i""");
+        this.jdbcTemplate.execute("analyze catalogue.t_product");
+        var filter = "%a1b2%";
+
+        //when
+        var withIndex = this.measureFilterMillis(filter);
+        var planWithIndex = this.explain(filter);
+        log.info("Plan with index:\n{}", planWithIndex);
+
+        this.jdbcTemplate.execute("drop index catalogue.idx_product_title_trgm");
+        this.jdbcTemplate.execute("analyze catalogue.t_product");
+
+        var withoutIndex = this.measureFilterMillis(filter);
+        var planWithoutIndex = this.explain(filter);
+        log.info("Plan without index:\n{}", planWithoutIndex);
+
+        //then
+        //время зависит от машины и только записывается в журнал, проверяется выбор плана
+        log.info("Filter {} on 1M products: {} ms/query with trigram index, {} ms/query without",
+                filter, withIndex, withoutIndex);
+        assertTrue(planWithIndex.contains("idx_product_title_trgm"), planWithIndex);
+        assertFalse(planWithoutIndex.contains("idx_product_title_trgm"), planWithoutIndex);
+    }
+
+    private double measureFilterMillis(String filter) {
+        //прогрев
+        for (int i = 0; i < 3; i++) {
+            this.productRepository.findAllByTitleLikeIgnoreCase(filter, 0, PageRequest.ofSize(20));
+        }
+
+        int iterations = 20;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            this.productRepository.findAllByTitleLikeIgnoreCase(filter, 0, PageRequest.ofSize(20));
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / iterations;
+    }
+
+    private String explain(String filter) {
+        return String.join("\n", this.jdbcTemplate.queryForList("""
+                explain (analyze, buffers)
+                select * from catalogue.t_product
+                where c_title ilike ? escape '\\' and id > 0 order by id limit 20""", String.class, filter));
+    }
+}
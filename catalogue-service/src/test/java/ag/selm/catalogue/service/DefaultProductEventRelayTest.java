@@ -0,0 +1,85 @@
+package ag.selm.catalogue.service;
+
+import ag.selm.catalogue.entity.ProductEvent;
+import ag.selm.catalogue.entity.ProductEventType;
+import ag.selm.catalogue.repository.ProductEventRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DefaultProductEventRelayTest {
+
+    ProductEventRepository productEventRepository = Mockito.mock(ProductEventRepository.class);
+
+    //локальная заглушка получателя: запоминает доставленные события
+    List<ProductEvent> publishedEvents = new ArrayList<>();
+
+    DefaultProductEventRelay relay = new DefaultProductEventRelay(this.productEventRepository,
+            this.publishedEvents::addAll, 2);
+
+    @Test
+    void relayPendingEvents_EventsArePending_PublishesAndDeletesEvents() {
+        //given
+        var events = List.of(
+                new ProductEvent(1L, 1, ProductEventType.CREATED, Instant.parse("2024-01-01T00:00:00Z")),
+                new ProductEvent(2L, 1, ProductEventType.UPDATED, Instant.parse("2024-01-01T00:00:01Z")));
+
+        doReturn(true).when(this.productEventRepository)
+                .tryAdvisoryTransactionLock(DefaultProductEventRelay.RELAY_LOCK_KEY);
+        doReturn(events).when(this.productEventRepository).findAllByOrderById(PageRequest.ofSize(2));
+
+        //when
+        var result = this.relay.relayPendingEvents();
+
+        //then
+        assertEquals(2, result);
+        assertEquals(events, this.publishedEvents);
+
+        verify(this.productEventRepository).tryAdvisoryTransactionLock(DefaultProductEventRelay.RELAY_LOCK_KEY);
+        verify(this.productEventRepository).findAllByOrderById(PageRequest.ofSize(2));
+        verify(this.productEventRepository).deleteAllByIdIn(List.of(1L, 2L));
+        verifyNoMoreInteractions(this.productEventRepository);
+    }
+
+    @Test
+    void relayPendingEvents_SinkFails_KeepsEvents() {
+        //given
+        var events = List.of(new ProductEvent(1L, 1, ProductEventType.DELETED, Instant.now()));
+        var relay = new DefaultProductEventRelay(this.productEventRepository, publishedEvents -> {
+            throw new IllegalStateException("sink is unavailable");
+        }, 2);
+
+        doReturn(true).when(this.productEventRepository)
+                .tryAdvisoryTransactionLock(DefaultProductEventRelay.RELAY_LOCK_KEY);
+        doReturn(events).when(this.productEventRepository).findAllByOrderById(PageRequest.ofSize(2));
+
+        //when
+        assertThrows(IllegalStateException.class, relay::relayPendingEvents);
+
+        //then
+        //события не удалены и будут отправлены при следующем опросе
+        verify(this.productEventRepository, never()).deleteAllByIdIn(anyCollection());
+    }
+
+    @Test
+    void relayPendingEvents_LockIsHeldByAnotherNode_DoesNothing() {
+        //given
+
+        //when
+        var result = this.relay.relayPendingEvents();
+
+        //then
+        assertEquals(0, result);
+        assertTrue(this.publishedEvents.isEmpty());
+
+        verify(this.productEventRepository).tryAdvisoryTransactionLock(DefaultProductEventRelay.RELAY_LOCK_KEY);
+        verifyNoMoreInteractions(this.productEventRepository);
+    }
+}
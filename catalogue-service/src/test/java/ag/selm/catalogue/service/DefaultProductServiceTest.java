@@ -1,13 +1,30 @@
 package ag.selm.catalogue.service;
 
 import ag.selm.catalogue.entity.Product;
+import ag.selm.catalogue.entity.ProductEvent;
+import ag.selm.catalogue.entity.ProductEventType;
+import ag.selm.catalogue.entity.ProductSummary;
+import ag.selm.catalogue.entity.ProductsCount;
+import ag.selm.catalogue.entity.ProductsCountMode;
+import ag.selm.catalogue.repository.PgProductStatisticsRepository;
+import ag.selm.catalogue.repository.ProductEventRepository;
 import ag.selm.catalogue.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -16,7 +33,18 @@ class DefaultProductServiceTest {
 
     ProductRepository productRepository = Mockito.mock(ProductRepository.class);
 
-    DefaultProductService defaultProductService = new DefaultProductService(productRepository);
+    ProductEventRepository productEventRepository = Mockito.mock(ProductEventRepository.class);
+
+    EntityManager entityManager = Mockito.mock(EntityManager.class);
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    ProductTitleIndex productTitleIndex = Mockito.mock(ProductTitleIndex.class);
+
+    PgProductStatisticsRepository productStatisticsRepository = Mockito.mock(PgProductStatisticsRepository.class);
+
+    DefaultProductService defaultProductService = new DefaultProductService(productRepository,
+            productEventRepository, entityManager, meterRegistry, productTitleIndex, productStatisticsRepository);
 
     @Test
     void findAllProducts_FilterIsNotSet_ReturnsProductsList(){
@@ -27,16 +55,16 @@ class DefaultProductServiceTest {
                 .toList();
 
         doReturn(products)
-                .when(this.productRepository).findAll();
+                .when(this.productRepository).findAllByIdGreaterThanOrderById(0, PageRequest.ofSize(20));
 
         //when
-        var result = this.defaultProductService.findAllProducts(filter);
+        var result = this.defaultProductService.findAllProducts(filter, 0, 20);
 
         //then
         assertEquals(products, result);
 
         //данный метод действительно был вызван
-        verify(this.productRepository).findAll();
+        verify(this.productRepository).findAllByIdGreaterThanOrderById(0, PageRequest.ofSize(20));
 
         //к данному Mock объекту больше не было никаких обращений в рамках тестируемого метода
         verifyNoMoreInteractions(this.productRepository);
@@ -51,21 +79,197 @@ class DefaultProductServiceTest {
                 .toList();
 
         doReturn(products)
-            .when(this.productRepository).findAllByTitleLikeIgnoreCase("%товар%");
+            .when(this.productRepository).findAllByTitleLikeIgnoreCase("%товар%", 0, PageRequest.ofSize(20));
 
         //when
-        var result = this.defaultProductService.findAllProducts(filter);
+        var result = this.defaultProductService.findAllProducts(filter, 0, 20);
 
         //then
         assertEquals(products, result);
 
         //данный метод действительно был вызван
-        verify(this.productRepository).findAllByTitleLikeIgnoreCase("%товар%");
+        verify(this.productRepository).findAllByTitleLikeIgnoreCase("%товар%", 0, PageRequest.ofSize(20));
+
+        //к данному Mock объекту больше не было никаких обращений в рамках тестируемого метода
+        verifyNoMoreInteractions(this.productRepository);
+    }
+
+    @Test
+    void findAllProducts_CountsFilteredAndUnfilteredListings(){
+        //given
+
+        //when
+        this.defaultProductService.findAllProducts("товар", 0, 20);
+        this.defaultProductService.findAllProducts(null, 0, 20);
+        this.defaultProductService.findAllProductSummaries(" ", 0, 20);
+
+        //then
+        assertEquals(1.0, this.meterRegistry.get("catalogue.products.listings")
+                .tags("filtered", "true", "view", "full").counter().count());
+        assertEquals(1.0, this.meterRegistry.get("catalogue.products.listings")
+                .tags("filtered", "false", "view", "full").counter().count());
+        //пустой фильтр считается отсутствующим
+        assertEquals(1.0, this.meterRegistry.get("catalogue.products.listings")
+                .tags("filtered", "false", "view", "summary").counter().count());
+    }
+
+    @Test
+    void findAllProducts_FilterContainsLikeWildcards_EscapesWildcards(){
+        //given
+        String filter = "50%_скидка";
+
+        doReturn(List.of())
+                .when(this.productRepository).findAllByTitleLikeIgnoreCase("%50\\%\\_скидка%", 0, PageRequest.ofSize(20));
+
+        //when
+        var result = this.defaultProductService.findAllProducts(filter, 0, 20);
+
+        //then
+        assertEquals(List.of(), result);
+
+        //данный метод действительно был вызван
+        verify(this.productRepository).findAllByTitleLikeIgnoreCase("%50\\%\\_скидка%", 0, PageRequest.ofSize(20));
+
+        //к данному Mock объекту больше не было никаких обращений в рамках тестируемого метода
+        verifyNoMoreInteractions(this.productRepository);
+    }
+
+    @Test
+    void findAllProductSummaries_FilterIsSet_ReturnsFilteredSummaries(){
+        //given
+        var summaries = List.of(new ProductSummary(1, "товар №1"), new ProductSummary(3, "товар №3"));
+
+        doReturn(summaries)
+                .when(this.productRepository).findAllSummariesByTitleLikeIgnoreCase("%товар%", 0, PageRequest.ofSize(20));
+
+        //when
+        var result = this.defaultProductService.findAllProductSummaries("товар", 0, 20);
+
+        //then
+        assertEquals(summaries, result);
+
+        //данный метод действительно был вызван
+        verify(this.productRepository).findAllSummariesByTitleLikeIgnoreCase("%товар%", 0, PageRequest.ofSize(20));
 
         //к данному Mock объекту больше не было никаких обращений в рамках тестируемого метода
         verifyNoMoreInteractions(this.productRepository);
     }
 
+    @Test
+    void findAllProductSummaries_FilterIsNotSet_ReturnsSummariesAfterCursor(){
+        //given
+        var summaries = List.of(new ProductSummary(3, "товар №3"));
+
+        doReturn(summaries)
+                .when(this.productRepository).findAllSummariesByIdGreaterThan(2, PageRequest.ofSize(20));
+
+        //when
+        var result = this.defaultProductService.findAllProductSummaries(null, 2, 20);
+
+        //then
+        assertEquals(summaries, result);
+
+        //данный метод действительно был вызван
+        verify(this.productRepository).findAllSummariesByIdGreaterThan(2, PageRequest.ofSize(20));
+
+        //к данному Mock объекту больше не было никаких обращений в рамках тестируемого метода
+        verifyNoMoreInteractions(this.productRepository);
+    }
+
+    @Test
+    void searchProducts_ReturnsFoundProductsSlice(){
+        //given
+        var products = new SliceImpl<>(List.of(new Product(2, "Шоколадка", "Очень вкусная шоколадка")),
+                PageRequest.of(0, 20), false);
+
+        doReturn(products)
+                .when(this.productRepository).searchAllByQuery("шоколад", PageRequest.of(0, 20));
+
+        //when
+        var result = this.defaultProductService.searchProducts("шоколад", 0, 20);
+
+        //then
+        assertEquals(products, result);
+
+        //данный метод действительно был вызван
+        verify(this.productRepository).searchAllByQuery("шоколад", PageRequest.of(0, 20));
+
+        //к данному Mock объекту больше не было никаких обращений в рамках тестируемого метода
+        verifyNoMoreInteractions(this.productRepository);
+    }
+
+    @Test
+    void streamAllProducts_FilterIsSet_PassesProductsToConsumerAndDetachesThem(){
+        //given
+        var products = IntStream.range(1, 4)
+                .mapToObj(i -> new Product(i, "товар №%d".formatted(i), "Описание товара №%d".formatted(i)))
+                .toList();
+        var consumed = new ArrayList<Product>();
+
+        doReturn(products.stream())
+                .when(this.productRepository).streamAllByTitleLikeIgnoreCase("%товар%");
+
+        //when
+        this.defaultProductService.streamAllProducts("товар", consumed::add);
+
+        //then
+        assertEquals(products, consumed);
+
+        verify(this.productRepository).streamAllByTitleLikeIgnoreCase("%товар%");
+        //каждый переданный товар был отсоединен от контекста персистентности
+        products.forEach(product -> verify(this.entityManager).detach(product));
+
+        verifyNoMoreInteractions(this.productRepository, this.entityManager);
+    }
+
+    @Test
+    void streamAllProducts_FilterIsNotSet_StreamsAllProducts(){
+        //given
+        var product = new Product(1, "товар №1", "Описание товара №1");
+        var consumed = new ArrayList<Product>();
+
+        doReturn(Stream.of(product)).when(this.productRepository).streamAllByOrderById();
+
+        //when
+        this.defaultProductService.streamAllProducts(null, consumed::add);
+
+        //then
+        assertEquals(List.of(product), consumed);
+
+        verify(this.productRepository).streamAllByOrderById();
+        verify(this.entityManager).detach(product);
+        verifyNoMoreInteractions(this.productRepository, this.entityManager);
+    }
+
+    @Test
+    void rebuildTitleIndex_LoadsAllSummariesPageByPage(){
+        //given
+        var firstPage = IntStream.rangeClosed(1, 1000)
+                .mapToObj(i -> new ProductSummary(i, "товар №%d".formatted(i)))
+                .toList();
+        var secondPage = List.of(new ProductSummary(1001, "товар №1001"));
+
+        doReturn(firstPage).when(this.productRepository).findAllSummariesByIdGreaterThan(0, PageRequest.ofSize(1000));
+        doReturn(secondPage).when(this.productRepository)
+                .findAllSummariesByIdGreaterThan(1000, PageRequest.ofSize(1000));
+
+        //when
+        this.defaultProductService.rebuildTitleIndex();
+
+        //then
+        ArgumentCaptor<Supplier<? extends Iterable<ProductSummary>>> loader = ArgumentCaptor.forClass(Supplier.class);
+        verify(this.productTitleIndex).rebuild(loader.capture());
+
+        //товары читаются, когда индекс вызывает загрузку
+        var expected = new ArrayList<>(firstPage);
+        expected.addAll(secondPage);
+        assertEquals(expected, loader.getValue().get());
+
+        verify(this.productRepository).findAllSummariesByIdGreaterThan(0, PageRequest.ofSize(1000));
+        verify(this.productRepository).findAllSummariesByIdGreaterThan(1000, PageRequest.ofSize(1000));
+        verifyNoMoreInteractions(this.productRepository);
+    }
+
     @Test
     void findProduct_ProductExists_ReturnsProduct(){
         //given
@@ -105,6 +309,42 @@ class DefaultProductServiceTest {
         verifyNoMoreInteractions(this.productRepository);
     }
 
+    @Test
+    void findProductsByIds_ReturnsFoundProductsOrderedById(){
+        //given
+        var ids = Set.of(3, 1, 404);
+
+        doReturn(List.of(new Product(3, "товар №3", "Описание товара №3"),
+                new Product(1, "товар №1", "Описание товара №1")))
+                .when(this.productRepository).findAllById(ids);
+
+        //when
+        var result = this.defaultProductService.findProductsByIds(ids);
+
+        //then
+        assertEquals(List.of(new Product(1, "товар №1", "Описание товара №1"),
+                new Product(3, "товар №3", "Описание товара №3")), result);
+
+        //данный метод действительно был вызван
+        verify(this.productRepository).findAllById(ids);
+
+        //к данному Mock объекту больше не было никаких обращений в рамках тестируемого метода
+        verifyNoMoreInteractions(this.productRepository);
+    }
+
+    @Test
+    void findProductsByIds_IdsAreEmpty_ReturnsEmptyListWithoutQuery(){
+        //given
+
+        //when
+        var result = this.defaultProductService.findProductsByIds(Set.of());
+
+        //then
+        assertEquals(List.of(), result);
+
+        verifyNoInteractions(this.productRepository);
+    }
+
     @Test
     void createProduct_ReturnsCreatedProduct(){
         //given
@@ -122,9 +362,38 @@ class DefaultProductServiceTest {
 
         //данный метод действительно был вызван
         verify(this.productRepository).save(new Product(null, "Новый товар", "Описание нового товара"));
+        //событие о создании записано в журнал вместе с товаром
+        verify(this.productEventRepository).save(argThat(event -> event.getProductId() == 1
+                && event.getType() == ProductEventType.CREATED));
+        verify(this.productTitleIndex).putAfterCommit(1, "Новый товар");
 
         //к данному Mock объекту больше не было никаких обращений в рамках тестируемого метода
-        verifyNoMoreInteractions(this.productRepository);
+        verifyNoMoreInteractions(this.productRepository, this.productEventRepository);
+    }
+
+    @Test
+    void createProducts_FlushesAndClearsEveryBatch(){
+        //given
+        var products = IntStream.range(0, 120)
+                .mapToObj(i -> new Product(null, "товар №%d".formatted(i), null))
+                .toList();
+
+        doAnswer(invocation -> invocation.getArgument(0))
+                .when(this.productRepository).save(any(Product.class));
+
+        //when
+        var result = this.defaultProductService.createProducts(products);
+
+        //then
+        assertEquals(products, result);
+
+        products.forEach(product -> verify(this.productRepository).save(product));
+        verify(this.productEventRepository, times(120)).save(any(ProductEvent.class));
+        //120 товаров - два полных пакета по 50, оставшиеся 20 отправятся при фиксации транзакции
+        verify(this.entityManager, times(2)).flush();
+        verify(this.entityManager, times(2)).clear();
+
+        verifyNoMoreInteractions(this.productRepository, this.entityManager);
     }
 
     @Test
@@ -134,20 +403,21 @@ class DefaultProductServiceTest {
         var title = "Обновленный товар";
         var details = "Описание обновленного товара";
 
-        var product = new Product(1, "Новый товар", "Описание нового товара");
-
-        doReturn(Optional.of(product))
-                .when(this.productRepository).findById(1);
+        doReturn(1)
+                .when(this.productRepository).updateTitleAndDetailsById(1, title, details);
 
         //when
         this.defaultProductService.updateProduct(id, title, details);
 
         //then
-        //данный метод действительно был вызван
-        verify(this.productRepository).findById(id);
+        //товар изменен одним запросом, без предварительной загрузки
+        verify(this.productRepository).updateTitleAndDetailsById(id, title, details);
+        verify(this.productEventRepository).save(argThat(event -> event.getProductId() == 1
+                && event.getType() == ProductEventType.UPDATED));
+        verify(this.productTitleIndex).putAfterCommit(1, "Обновленный товар");
 
         //к данному Mock объекту больше не было никаких обращений в рамках тестируемого метода
-        verifyNoMoreInteractions(this.productRepository);
+        verifyNoMoreInteractions(this.productRepository, this.productEventRepository);
     }
 
     @Test
@@ -158,15 +428,18 @@ class DefaultProductServiceTest {
         var details = "Описание обновленного товара";
 
         //when
-        assertThrows(NoSuchElementException.class,
+        var exception = assertThrows(NoSuchElementException.class,
                 () -> this.defaultProductService.updateProduct(id, title, details));
 
         //then
+        assertEquals("catalogue.errors.product.not_found", exception.getMessage());
+
         //данный метод действительно был вызван
-        verify(this.productRepository).findById(id);
+        verify(this.productRepository).updateTitleAndDetailsById(id, title, details);
 
         //к данному Mock объекту больше не было никаких обращений в рамках тестируемого метода
-        verifyNoMoreInteractions(this.productRepository);
+        //несуществующий товар не изменялся, события нет
+        verifyNoMoreInteractions(this.productRepository, this.productEventRepository);
     }
 
     @Test
@@ -174,14 +447,102 @@ class DefaultProductServiceTest {
         //given
         var id = 1;
 
+        doReturn(1)
+                .when(this.productRepository).deleteProductById(1);
+
         //when
         this.defaultProductService.deleteProduct(id);
 
         //then
         //данный метод действительно был вызван
-        verify(this.productRepository).deleteById(id);
+        verify(this.productRepository).deleteProductById(id);
+        verify(this.productEventRepository).save(argThat(event -> event.getProductId() == 1
+                && event.getType() == ProductEventType.DELETED));
+        verify(this.productTitleIndex).removeAfterCommit(1);
 
         //к данному Mock объекту больше не было никаких обращений в рамках тестируемого метода
-        verifyNoMoreInteractions(this.productRepository);
+        verifyNoMoreInteractions(this.productRepository, this.productEventRepository);
+    }
+
+    @Test
+    void deleteProduct_ProductDoesNotExist_ThrowsNoSuchElementException(){
+        //given
+        var id = 1;
+
+        //when
+        var exception = assertThrows(NoSuchElementException.class,
+                () -> this.defaultProductService.deleteProduct(id));
+
+        //then
+        assertEquals("catalogue.errors.product.not_found", exception.getMessage());
+
+        //данный метод действительно был вызван
+        verify(this.productRepository).deleteProductById(id);
+
+        //к данному Mock объекту больше не было никаких обращений в рамках тестируемого метода
+        verifyNoMoreInteractions(this.productRepository, this.productEventRepository);
+    }
+
+    @Test
+    void countProducts_ModeIsExact_ReturnsExactFilteredCount(){
+        //given
+        doReturn(3L).when(this.productRepository).countByTitleLikeIgnoreCase("%100\\%%");
+
+        //when
+        var result = this.defaultProductService.countProducts("100%", ProductsCountMode.EXACT);
+
+        //then
+        assertEquals(new ProductsCount(3, true), result);
+
+        //оценка не запрашивалась
+        verifyNoInteractions(this.productStatisticsRepository);
+    }
+
+    @Test
+    void countProducts_ModeIsAutoAndEstimateIsLarge_ReturnsEstimate(){
+        //given
+        doReturn(1_000_000L).when(this.productStatisticsRepository).estimateCount();
+
+        //when
+        var result = this.defaultProductService.countProducts(null, ProductsCountMode.AUTO);
+
+        //then
+        assertEquals(new ProductsCount(1_000_000, false), result);
+
+        //count(*) по всей таблице не выполнялся
+        verifyNoInteractions(this.productRepository);
+    }
+
+    @Test
+    void countProducts_ModeIsAutoAndEstimateIsSmall_ReturnsExactCount(){
+        //given
+        doReturn(40L).when(this.productStatisticsRepository).estimateCount("%товар%");
+        doReturn(37L).when(this.productRepository).countByTitleLikeIgnoreCase("%товар%");
+
+        //when
+        var result = this.defaultProductService.countProducts("товар", ProductsCountMode.AUTO);
+
+        //then
+        assertEquals(new ProductsCount(37, true), result);
+
+        //данный метод действительно был вызван
+        verify(this.productStatisticsRepository).estimateCount("%товар%");
+        verify(this.productRepository).countByTitleLikeIgnoreCase("%товар%");
+
+        //к данному Mock объекту больше не было никаких обращений в рамках тестируемого метода
+        verifyNoMoreInteractions(this.productRepository, this.productStatisticsRepository);
+    }
+
+    @Test
+    void countProducts_ModeIsEstimateAndTableIsNotAnalyzed_ReturnsExactCount(){
+        //given
+        doReturn(-1L).when(this.productStatisticsRepository).estimateCount();
+        doReturn(4L).when(this.productRepository).count();
+
+        //when
+        var result = this.defaultProductService.countProducts(" ", ProductsCountMode.ESTIMATE);
+
+        //then
+        assertEquals(new ProductsCount(4, true), result);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,59 @@
+package ag.selm.catalogue.service;
+
+import ag.selm.catalogue.entity.Product;
+import ag.selm.catalogue.entity.ProductsImportReport;
+import ag.selm.catalogue.repository.PgCopyProductsRepository;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DefaultProductsBulkServiceTest {
+
+    @Mock
+    PgCopyProductsRepository pgCopyProductsRepository;
+
+    @Mock
+    EntityManagerFactory entityManagerFactory;
+
+    @InjectMocks
+    DefaultProductsBulkService service;
+
+    @Test
+    void importProducts_EvictsHibernateCaches() {
+        //given
+        var inputStream = new ByteArrayInputStream(new byte[0]);
+        var report = new ProductsImportReport(1, 1, 0, 0, List.of());
+        var cache = mock(Cache.class);
+        var sessionFactory = mock(SessionFactory.class);
+        var hibernateCache = mock(org.hibernate.Cache.class);
+
+        doReturn(report).when(this.pgCopyProductsRepository).importProducts(inputStream);
+        doReturn(cache).when(this.entityManagerFactory).getCache();
+        doReturn(sessionFactory).when(this.entityManagerFactory).unwrap(SessionFactory.class);
+        doReturn(hibernateCache).when(sessionFactory).getCache();
+
+        //when
+        var result = this.service.importProducts(inputStream);
+
+        //then
+        assertEquals(report, result);
+
+        //вне транзакции кеши сбрасываются сразу
+        verify(cache).evict(Product.class);
+        verify(hibernateCache).evictQueryRegions();
+        verify(this.pgCopyProductsRepository).importProducts(inputStream);
+        verifyNoMoreInteractions(this.pgCopyProductsRepository, cache, hibernateCache);
+    }
+}
@@ -0,0 +1,151 @@
+package ag.selm.catalogue.service;
+
+import ag.selm.catalogue.entity.ProductSummary;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductTitleIndexTest {
+
+    ProductTitleIndex index = new ProductTitleIndex();
+
+    @Test
+    void suggest_ReturnsProductsWithPrefixInTitleOrder() {
+        //given
+        this.index.replaceAll(List.of(
+                new ProductSummary(1, "Хлеб белый"),
+                new ProductSummary(2, "Шоколадка"),
+                new ProductSummary(3, "хлеб  Бородинский"),
+                new ProductSummary(4, "Хлебцы")));
+
+        //when
+        var result = this.index.suggest("  ХЛЕБ ", 10);
+
+        //then
+        //регистр и повторяющиеся пробелы не учитываются
+        assertEquals(List.of(new ProductSummary(3, "хлеб  Бородинский"), new ProductSummary(1, "Хлеб белый"),
+                new ProductSummary(4, "Хлебцы")), result);
+    }
+
+    @Test
+    void suggest_LimitIsSet_ReturnsFirstProducts() {
+        //given
+        this.index.replaceAll(List.of(new ProductSummary(1, "Товар №1"), new ProductSummary(2, "Товар №2"),
+                new ProductSummary(3, "Товар №3")));
+
+        //when
+        var result = this.index.suggest("товар", 2);
+
+        //then
+        assertEquals(List.of(new ProductSummary(1, "Товар №1"), new ProductSummary(2, "Товар №2")), result);
+    }
+
+    @Test
+    void suggest_PrefixIsBlank_ReturnsEmptyList() {
+        //given
+        this.index.put(1, "Товар №1");
+
+        //when
+        var result = this.index.suggest(" ", 10);
+
+        //then
+        assertEquals(List.of(), result);
+    }
+
+    @Test
+    void put_TitleIsChanged_ReplacesPreviousTitle() {
+        //given
+        this.index.put(1, "Ёлочная игрушка");
+
+        //when
+        this.index.put(1, "Гирлянда");
+
+        //then
+        assertEquals(List.of(), this.index.suggest("ел", 10));
+        assertEquals(List.of(new ProductSummary(1, "Гирлянда")), this.index.suggest("гир", 10));
+        assertEquals(1, this.index.size());
+    }
+
+    @Test
+    void remove_RemovesProduct() {
+        //given
+        this.index.put(1, "Товар №1");
+
+        //when
+        this.index.remove(1);
+
+        //then
+        assertEquals(List.of(), this.index.suggest("товар", 10));
+        assertEquals(0, this.index.size());
+    }
+
+    @Test
+    void rebuild_ProductsChangeDuringRebuild_KeepsChanges() {
+        //given
+        this.index.put(1, "Товар №1");
+        this.index.put(2, "Товар №2");
+
+        //when
+        //загрузка вернула состояние до изменений, внесенных параллельно с ней
+        this.index.rebuild(() -> {
+            this.index.put(3, "Товар №3");
+            this.index.put(1, "Переименованный товар");
+            this.index.remove(2);
+            return List.of(new ProductSummary(1, "Товар №1"), new ProductSummary(2, "Товар №2"));
+        });
+
+        //then
+        assertEquals(List.of(new ProductSummary(3, "Товар №3")), this.index.suggest("товар", 10));
+        assertEquals(List.of(new ProductSummary(1, "Переименованный товар")), this.index.suggest("переим", 10));
+        assertEquals(2, this.index.size());
+    }
+
+    @Test
+    void put_ConcurrentUpdatesOfSameProduct_KeepsSingleEntry() throws Exception {
+        //given
+        var titles = List.of("Товар альфа", "Товар бета", "Товар гамма", "Товар дельта");
+
+        //when
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var futures = new ArrayList<Future<?>>();
+            for (int i = 0; i < 1000; i++) {
+                String title = titles.get(i % titles.size());
+                futures.add(executor.submit(() -> this.index.put(1, title)));
+            }
+            for (var future : futures) {
+                future.get();
+            }
+        }
+
+        //then
+        //в подсказках остается ровно одна запись товара, с последним записанным названием
+        var suggestions = this.index.suggest("товар", 10);
+        assertEquals(1, suggestions.size());
+        assertEquals(1, this.index.size());
+    }
+
+    @Test
+    void putAfterCommit_TransactionIsActive_AppliesAfterCommit() {
+        //given
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            //when
+            this.index.putAfterCommit(1, "Товар №1");
+
+            //then
+            assertEquals(List.of(), this.index.suggest("товар", 10));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertEquals(List.of(new ProductSummary(1, "Товар №1")), this.index.suggest("товар", 10));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
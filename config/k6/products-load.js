@@ -0,0 +1,36 @@
+// Нагрузочный тест manager-app: 2000 одновременных пользователей открывают список товаров и карточку товара.
+// Запуск для каждого режима (manager-app и catalogue-service в одном и том же режиме):
+//   k6 run -e BASE_URL=http://localhost:8080 -e SESSION=<JSESSIONID> --summary-export=platform.json config/k6/products-load.js
+//   k6 run -e BASE_URL=http://localhost:8080 -e SESSION=<JSESSIONID> --summary-export=virtual.json config/k6/products-load.js
+// Пропускная способность - метрика http_reqs (rate), задержка - http_req_duration p(99).
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+
+export const options = {
+    scenarios: {
+        products: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: 2000 },
+                { duration: '3m', target: 2000 },
+                { duration: '30s', target: 0 },
+            ],
+            gracefulRampDown: '10s',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export default function () {
+    // manager-app требует аутентификации через Keycloak, используется сессия заранее вошедшего пользователя
+    const params = { headers: { Cookie: `JSESSIONID=${__ENV.SESSION}` }, redirects: 0 };
+
+    const list = http.get(`${BASE_URL}/catalogue/products/list`, params);
+    check(list, { 'list is 200': (r) => r.status === 200 });
+
+    const product = http.get(`${BASE_URL}/catalogue/products/${1 + Math.floor(Math.random() * 100)}`, params);
+    check(product, { 'product is 200 or 404': (r) => r.status === 200 || r.status === 404 });
+}
@@ -0,0 +1,36 @@
+package ag.selm.customer.client;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//последние полученные от каталога тела ответов вместе с их ETag:
+//при повторном запросе ETag отправляется в If-None-Match, и на ответ 304 возвращается сохраненное тело
+//хранится не более maxSize записей, вытесняются давно не использованные
+class ETagCache<K, V> {
+
+    private final Map<K, Entry<V>> entries;
+
+    ETagCache(int maxSize) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return this.size() > maxSize;
+            }
+        };
+    }
+
+    synchronized Entry<V> get(K key) {
+        return this.entries.get(key);
+    }
+
+    synchronized void put(K key, String eTag, V body) {
+        if (eTag == null || body == null) {
+            this.entries.remove(key);
+        } else {
+            this.entries.put(key, new Entry<>(eTag, body));
+        }
+    }
+
+    record Entry<V>(String eTag, V body) {
+    }
+}
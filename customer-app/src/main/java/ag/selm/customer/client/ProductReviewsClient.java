@@ -1,12 +1,17 @@
 package ag.selm.customer.client;
 
+import ag.selm.customer.entity.ProductRatingSummary;
 import ag.selm.customer.entity.ProductReview;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 public interface ProductReviewsClient {
 
     Flux<ProductReview> findProductReviewsByProductId(Integer productId);
 
+    Flux<ProductRatingSummary> findProductRatingSummaries(Collection<Integer> productIds);
+
     Mono<ProductReview> createProductReview(Integer productId, Integer rating, String reviews);
 }
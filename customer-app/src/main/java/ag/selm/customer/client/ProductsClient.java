@@ -1,12 +1,21 @@
 package ag.selm.customer.client;
 
 import ag.selm.customer.entity.Product;
+import ag.selm.customer.entity.ProductsPage;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 public interface ProductsClient {
 
-    Flux<Product> findAllProducts(String filter);
+    Mono<ProductsPage> findProductsPage(String filter, Integer after);
+
+    //nextCursor найденной страницы - номер следующей страницы результатов поиска
+    Mono<ProductsPage> searchProducts(String query, int page);
 
     Mono<Product> findProduct(int id);
+
+    //товары с указанными идентификаторами, отсутствующие в каталоге пропускаются
+    Flux<Product> findProductsByIds(Collection<Integer> ids);
 }
@@ -2,6 +2,7 @@ package ag.selm.customer.client;
 
 import ag.selm.customer.client.exception.ClientBadRequestException;
 import ag.selm.customer.client.payload.NewProductReviewPayload;
+import ag.selm.customer.entity.ProductRatingSummary;
 import ag.selm.customer.entity.ProductReview;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ProblemDetail;
@@ -10,21 +11,36 @@ import org.springframework.web.reactive.function.client.WebClientResponseExcepti
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
 import java.util.List;
 
 @RequiredArgsConstructor
 public class WebClientProductReviewsClient implements ProductReviewsClient {
 
+    //на странице товара показывается только первая страница отзывов
+    private static final int REVIEWS_PAGE_SIZE = 20;
+
     private final WebClient webClient;
 
     @Override
     public Flux<ProductReview> findProductReviewsByProductId(Integer productId) {
         return this.webClient
                 .get()
-                .uri("feedback-api/product-reviews/by-product-id/{productId}", productId)
+                .uri("feedback-api/product-reviews/by-product-id/{productId}?limit={limit}", productId,
+                        REVIEWS_PAGE_SIZE)
                 .retrieve().bodyToFlux(ProductReview.class);
     }
 
+    @Override
+    public Flux<ProductRatingSummary> findProductRatingSummaries(Collection<Integer> productIds) {
+        //сводки всей страницы товаров одним запросом
+        return this.webClient
+                .post()
+                .uri("feedback-api/product-reviews/summaries")
+                .bodyValue(productIds)
+                .retrieve().bodyToFlux(ProductRatingSummary.class);
+    }
+
     @Override
     public Mono<ProductReview> createProductReview(Integer productId, Integer rating, String reviews) {
         return this.webClient
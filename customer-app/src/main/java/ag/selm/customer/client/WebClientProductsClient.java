@@ -1,29 +1,122 @@
 package ag.selm.customer.client;
 
 import ag.selm.customer.entity.Product;
+import ag.selm.customer.entity.ProductsPage;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+import java.util.stream.Collectors;
+
 @RequiredArgsConstructor
 public class WebClientProductsClient implements ProductsClient {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String NEXT_PAGE_HEADER = "X-Next-Page";
+
+    private static final int MAX_CACHED_RESPONSES = 256;
+
+    //больший список идентификаторов передается в теле POST-запроса, чтобы не упереться в длину URI
+    private static final int MAX_IDS_IN_QUERY = 50;
+
     private final WebClient webClient;
 
+    private final ETagCache<String, ProductsPage> pagesCache = new ETagCache<>(MAX_CACHED_RESPONSES);
+
+    private final ETagCache<Integer, Product> productsCache = new ETagCache<>(MAX_CACHED_RESPONSES);
+
+    @Override
+    public Mono<ProductsPage> findProductsPage(String filter, Integer after) {
+        String key = "%s|%s".formatted(filter, after);
+        //сохраненный ответ берется в момент подписки, а не при сборке цепочки
+        return Mono.defer(() -> {
+            ETagCache.Entry<ProductsPage> cached = this.pagesCache.get(key);
+            return this.webClient.get()
+                    //витрина показывает описание товара в списке, как и в результатах поиска,
+                    //поэтому краткое представление (только id и title) здесь не подходит
+                    .uri("/catalogue-api/products?filter={filter}&after={after}", filter, after)
+                    .headers(headers -> {
+                        if (cached != null) {
+                            headers.setIfNoneMatch(cached.eTag());
+                        }
+                    })
+                    .retrieve().toEntityList(Product.class)
+                    .map(response -> {
+                        //каталог не изменился - используем ранее полученную страницу
+                        if (cached != null && response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                            return cached.body();
+                        }
+
+                        String nextCursor = response.getHeaders().getFirst(NEXT_CURSOR_HEADER);
+                        ProductsPage page = new ProductsPage(response.getBody(),
+                                nextCursor == null ? null : Integer.valueOf(nextCursor));
+                        this.pagesCache.put(key, response.getHeaders().getETag(), page);
+                        return page;
+                    });
+        });
+    }
+
     @Override
-    public Flux<Product> findAllProducts(String filter) {
+    public Mono<ProductsPage> searchProducts(String query, int page) {
         return this.webClient.get()
-                .uri("/catalogue-api/products?filter={filter}", filter)
-                .retrieve().bodyToFlux(Product.class);
+                .uri("/catalogue-api/products/search?q={query}&page={page}", query, page)
+                .retrieve().toEntityList(Product.class)
+                .map(response -> {
+                    String nextPage = response.getHeaders().getFirst(NEXT_PAGE_HEADER);
+                    return new ProductsPage(response.getBody(),
+                            nextPage == null ? null : Integer.valueOf(nextPage));
+                });
     }
 
     @Override
     public Mono<Product> findProduct(int id) {
-        return this.webClient.get()
-                .uri("/catalogue-api/products/{productId}", id)
-                .retrieve().bodyToMono(Product.class)
-                .onErrorComplete(WebClientResponseException.NotFound.class);
+        return Mono.defer(() -> {
+            ETagCache.Entry<Product> cached = this.productsCache.get(id);
+            return this.webClient.get()
+                    .uri("/catalogue-api/products/{productId}", id)
+                    .headers(headers -> {
+                        if (cached != null) {
+                            headers.setIfNoneMatch(cached.eTag());
+                        }
+                    })
+                    .retrieve().toEntity(Product.class)
+                    .mapNotNull(response -> {
+                        //товар не изменился - используем ранее полученное тело
+                        if (cached != null && response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                            return cached.body();
+                        }
+
+                        this.productsCache.put(id, response.getHeaders().getETag(), response.getBody());
+                        return response.getBody();
+                    })
+                    .onErrorComplete(WebClientResponseException.NotFound.class);
+        });
+    }
+
+    @Override
+    public Flux<Product> findProductsByIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+
+        if (ids.size() <= MAX_IDS_IN_QUERY) {
+            return this.webClient.get()
+                    .uri("/catalogue-api/products?ids={ids}", ids.stream()
+                            .map(String::valueOf)
+                            .collect(Collectors.joining(",")))
+                    .retrieve().bodyToFlux(Product.class);
+        }
+
+        return this.webClient.post()
+                .uri("/catalogue-api/products:by-ids")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(ids)
+                .retrieve().bodyToFlux(Product.class);
     }
 }
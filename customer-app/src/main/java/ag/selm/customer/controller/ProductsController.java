@@ -1,8 +1,11 @@
 package ag.selm.customer.controller;
 
 import ag.selm.customer.client.FavouriteProductsClient;
+import ag.selm.customer.client.ProductReviewsClient;
 import ag.selm.customer.client.ProductsClient;
 import ag.selm.customer.entity.FavouriteProduct;
+import ag.selm.customer.entity.Product;
+import ag.selm.customer.entity.ProductRatingSummary;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -11,6 +14,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.Map;
+
 @Controller
 @RequiredArgsConstructor
 @RequestMapping("customer/products")
@@ -20,16 +26,49 @@ public class ProductsController {
 
     private final FavouriteProductsClient favouriteProductsClient;
 
+    private final ProductReviewsClient productReviewsClient;
+
     @GetMapping("list")
     public Mono<String> getProductsListPage(Model model,
-                                            @RequestParam(name = "filter", required = false) String filter) {
+                                            @RequestParam(name = "filter", required = false) String filter,
+                                            @RequestParam(name = "after", required = false) Integer after,
+                                            @RequestParam(name = "page", defaultValue = "0") int page) {
         model.addAttribute("filter", filter);
-        return this.productsClient.findAllProducts(filter)
-                .collectList()
-                .doOnNext(products -> model.addAttribute("products", products))
+        //при заданном фильтре - полнотекстовый поиск по названию и описанию, результаты по релевантности
+        if (filter != null && !filter.isBlank()) {
+            return this.productsClient.searchProducts(filter, page)
+                    .flatMap(result -> {
+                        model.addAttribute("products", result.products());
+                        model.addAttribute("nextPage", result.nextCursor());
+                        return this.addRatings(model, result.products());
+                    })
+                    .thenReturn("customer/products/list");
+        }
+
+        return this.productsClient.findProductsPage(null, after)
+                .flatMap(productsPage -> {
+                    model.addAttribute("products", productsPage.products());
+                    model.addAttribute("nextCursor", productsPage.nextCursor());
+                    return this.addRatings(model, productsPage.products());
+                })
                 .thenReturn("customer/products/list");
     }
 
+    //оценки всех товаров страницы одним запросом к feedback-service: идентификатор товара -> сводка
+    private Mono<Void> addRatings(Model model, List<Product> products) {
+        if (products.isEmpty()) {
+            model.addAttribute("ratings", Map.of());
+            return Mono.empty();
+        }
+
+        return this.productReviewsClient.findProductRatingSummaries(products.stream().map(Product::id).toList())
+                .collectMap(ProductRatingSummary::productId)
+                //оценки только дополняют список: без feedback-service он показывается без них
+                .onErrorReturn(Map.of())
+                .doOnNext(ratings -> model.addAttribute("ratings", ratings))
+                .then();
+    }
+
     @GetMapping("favourites")
     public Mono<String> getFavouriteProductsPage(Model model,
                                                  @RequestParam(name = "filter", required = false) String filter){
@@ -37,8 +76,10 @@ public class ProductsController {
         return this.favouriteProductsClient.findFavouriteProducts()
                 .map(FavouriteProduct::productId)
                 .collectList()
-                .flatMap(favouriteProducts -> this.productsClient.findAllProducts(filter)
-                        .filter(product -> favouriteProducts.contains(product.id()))
+                //из каталога запрашиваются только избранные товары, фильтр по названию применяется к ним
+                .flatMap(favouriteProducts -> this.productsClient.findProductsByIds(favouriteProducts)
+                        .filter(product -> filter == null || filter.isBlank()
+                                || product.title().toLowerCase().contains(filter.toLowerCase()))
                         .collectList()
                         .doOnNext(products -> model.addAttribute("products", products)))
                 .thenReturn("customer/products/favourites");
@@ -0,0 +1,5 @@
+package ag.selm.customer.entity;
+
+//сводка оценок товара из feedback-service
+public record ProductRatingSummary(int productId, long count, double average) {
+}
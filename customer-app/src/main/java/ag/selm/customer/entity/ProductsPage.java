@@ -0,0 +1,7 @@
+package ag.selm.customer.entity;
+
+import java.util.List;
+
+//nextCursor - идентификатор, после которого начинается следующая страница (null, если страница последняя)
+public record ProductsPage(List<Product> products, Integer nextCursor) {
+}
@@ -43,7 +43,7 @@ class ProductControllerIT {
     @Test
     void getProductPage_ProductExists_ReturnsProductPage(){
         //given
-        WireMock.stubFor(WireMock.get("/feedback-api/product-reviews/by-product-id/1")
+        WireMock.stubFor(WireMock.get(urlPathEqualTo("/feedback-api/product-reviews/by-product-id/1"))
                 .willReturn(okJson("""
                 [
                    {
@@ -85,7 +85,8 @@ class ProductControllerIT {
                 .expectStatus().isOk();
 
         WireMock.verify(getRequestedFor(urlPathMatching("/catalogue-api/products/1")));
-        WireMock.verify(getRequestedFor(urlPathMatching("/feedback-api/product-reviews/by-product-id/1")));
+        WireMock.verify(getRequestedFor(urlPathMatching("/feedback-api/product-reviews/by-product-id/1"))
+                .withQueryParam("limit", equalTo("20")));
         WireMock.verify(getRequestedFor(urlPathMatching("/feedback-api/favourite-products/by-product-id/1")));
     }
 
@@ -25,8 +25,8 @@ class ProductsControllerIT {
 
     @BeforeEach
     void setUp() {
-        WireMock.stubFor(WireMock.get(WireMock.urlPathMatching("/catalogue-api/products"))
-                .withQueryParam("filter", WireMock.equalTo("фильтр"))
+        WireMock.stubFor(WireMock.get(WireMock.urlPathMatching("/catalogue-api/products/search"))
+                .withQueryParam("q", WireMock.equalTo("фильтр"))
                 .willReturn(okJson("""
                      [
                         {
@@ -46,6 +46,11 @@ class ProductsControllerIT {
                         }
                      ]
                      """)));
+        WireMock.stubFor(WireMock.post(WireMock.urlPathMatching("/feedback-api/product-reviews/summaries"))
+                .willReturn(okJson("""
+                        [
+                            {"productId":1,"count":2,"sum":9,"histogram":{"4":1,"5":1},"average":4.5}
+                        ]""")));
     }
 
     @Test
@@ -62,8 +67,12 @@ class ProductsControllerIT {
         //then
                 .expectStatus().isOk();
 
-        WireMock.verify(WireMock.getRequestedFor(WireMock.urlPathMatching("/catalogue-api/products"))
-                .withQueryParam("filter", WireMock.equalTo("фильтр")));
+        WireMock.verify(WireMock.getRequestedFor(WireMock.urlPathMatching("/catalogue-api/products/search"))
+                .withQueryParam("q", WireMock.equalTo("фильтр"))
+                .withQueryParam("page", WireMock.equalTo("0")));
+        //оценки всей страницы запрошены одним запросом
+        WireMock.verify(1, WireMock.postRequestedFor(WireMock.urlPathMatching("/feedback-api/product-reviews/summaries"))
+                .withRequestBody(WireMock.equalToJson("[1, 2, 3]")));
     }
 
     @Test
@@ -99,6 +108,13 @@ class ProductsControllerIT {
                     ]
                                   """)
                         .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)));
+        WireMock.stubFor(WireMock.get(WireMock.urlPathMatching("/catalogue-api/products"))
+                .withQueryParam("ids", WireMock.equalTo("1,3"))
+                .willReturn(okJson("""
+                        [
+                            {"id":1,"title":"Отфильтрованный товар №1","details":"Описание отфильтрованного товара №1"},
+                            {"id":3,"title":"Отфильтрованный товар №3","details":"Описание отфильтрованного товара №3"}
+                        ]""")));
 
         //when
         this.webTestClient
@@ -110,7 +126,7 @@ class ProductsControllerIT {
                 .expectStatus().isOk();
 
         verify(getRequestedFor(urlPathMatching("/catalogue-api/products"))
-                .withQueryParam("filter", equalTo("фильтр")));
+                .withQueryParam("ids", equalTo("1,3")));
         verify(getRequestedFor(urlPathMatching("/feedback-api/favourite-products")));
     }
 
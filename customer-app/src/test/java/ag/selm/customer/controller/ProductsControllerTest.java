@@ -1,9 +1,12 @@
 package ag.selm.customer.controller;
 
 import ag.selm.customer.client.FavouriteProductsClient;
+import ag.selm.customer.client.ProductReviewsClient;
 import ag.selm.customer.client.ProductsClient;
 import ag.selm.customer.entity.FavouriteProduct;
 import ag.selm.customer.entity.Product;
+import ag.selm.customer.entity.ProductRatingSummary;
+import ag.selm.customer.entity.ProductsPage;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -11,9 +14,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.ui.ConcurrentModel;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -28,36 +33,81 @@ class ProductsControllerTest {
     @Mock
     FavouriteProductsClient favouriteProductsClient;
 
+    @Mock
+    ProductReviewsClient productReviewsClient;
+
     @InjectMocks
     ProductsController controller;
 
     @Test
-    void getProductsListPage_ReturnsProductsListPage(){
+    void getProductsListPage_FilterIsNotSet_ReturnsProductsListPage(){
+        //given
+        var model = new ConcurrentModel();
+        var products = List.of(
+                new Product(1, "Название продукта №1", "Описание продукта №1"),
+                new Product(2, "Название продукта №2", "Описание продукта №2"),
+                new Product(3, "Название продукта №3", "Описание продукта №3")
+        );
+
+        doReturn(Mono.just(new ProductsPage(products, 3)))
+                .when(this.productsClient).findProductsPage(null, null);
+        doReturn(Flux.just(new ProductRatingSummary(1, 2, 4.5), new ProductRatingSummary(3, 1, 3)))
+                .when(this.productReviewsClient).findProductRatingSummaries(List.of(1, 2, 3));
+
+        //when
+        StepVerifier.create(this.controller.getProductsListPage(model, null, null, 0))
+        //then
+                .expectNext("customer/products/list")
+                .verifyComplete();
+
+        assertEquals(products, model.getAttribute("products"));
+        assertEquals(3, model.getAttribute("nextCursor"));
+        //у товара без отзывов сводки нет
+        assertEquals(Map.of(1, new ProductRatingSummary(1, 2, 4.5), 3, new ProductRatingSummary(3, 1, 3)),
+                model.getAttribute("ratings"));
+
+        //проверка действительно был вызван метод
+        verify(this.productsClient).findProductsPage(null, null);
+        //оценки всей страницы запрошены одним вызовом
+        verify(this.productReviewsClient).findProductRatingSummaries(List.of(1, 2, 3));
+        //более не было никаких вызовов у данного mock объекта
+        verifyNoMoreInteractions(this.productsClient, this.productReviewsClient);
+        //не было вызовов к другим mock объектам
+        verifyNoInteractions(this.favouriteProductsClient);
+    }
+
+    @Test
+    void getProductsListPage_FilterIsSet_ReturnsSearchResultsPage(){
         //given
         var model = new ConcurrentModel();
         var filter = "фильтр";
         var products = List.of(
                 new Product(1, "фильтр Название продукта №1", "Описание продукта №1"),
-                new Product(2, "Название фильтр продукта №2", "Описание продукта №2"),
-                new Product(3, "Название продукта №3 фильтр", "Описание продукта №3")
+                new Product(2, "Название продукта №2", "Описание фильтр продукта №2")
         );
 
-        doReturn(Flux.fromIterable(products))
-                .when(this.productsClient).findAllProducts("фильтр");
+        doReturn(Mono.just(new ProductsPage(products, 2)))
+                .when(this.productsClient).searchProducts("фильтр", 1);
+        doReturn(Flux.error(new IllegalStateException()))
+                .when(this.productReviewsClient).findProductRatingSummaries(List.of(1, 2));
 
         //when
-        StepVerifier.create(this.controller.getProductsListPage(model, filter))
+        StepVerifier.create(this.controller.getProductsListPage(model, filter, null, 1))
         //then
                 .expectNext("customer/products/list")
                 .verifyComplete();
 
         assertEquals("фильтр", model.getAttribute("filter"));
         assertEquals(products, model.getAttribute("products"));
+        assertEquals(2, model.getAttribute("nextPage"));
+        //feedback-service недоступен - список показывается без оценок
+        assertEquals(Map.of(), model.getAttribute("ratings"));
 
         //проверка действительно был вызван метод
-        verify(this.productsClient).findAllProducts("фильтр");
+        verify(this.productsClient).searchProducts("фильтр", 1);
+        verify(this.productReviewsClient).findProductRatingSummaries(List.of(1, 2));
         //более не было никаких вызовов у данного mock объекта
-        verifyNoMoreInteractions(this.productsClient);
+        verifyNoMoreInteractions(this.productsClient, this.productReviewsClient);
         //не было вызовов к другим mock объектам
         verifyNoInteractions(this.favouriteProductsClient);
     }
@@ -70,20 +120,21 @@ class ProductsControllerTest {
 
         var products = List.of(
                 new Product(1, "фильтр Название продукта №1", "Описание продукта №1"),
-                new Product(2, "Название фильтр продукта №2", "Описание продукта №2"),
-                new Product(3, "Название продукта №3 фильтр", "Описание продукта №3")
+                new Product(3, "Название продукта №3 фильтр", "Описание продукта №3"),
+                new Product(4, "Название продукта №4", "Описание продукта №4")
         );
 
         var favouriteProducts = List.of(
                 new FavouriteProduct(UUID.fromString("a16f0218-cbaf-11ee-9e6c-6b0fa3631587"), 1),
-                new FavouriteProduct(UUID.fromString("a42ff37c-cbaf-11ee-8b1d-cb00912914b5"), 3)
+                new FavouriteProduct(UUID.fromString("a42ff37c-cbaf-11ee-8b1d-cb00912914b5"), 3),
+                new FavouriteProduct(UUID.fromString("b5e2c4d6-cbaf-11ee-a1f3-3f1a7c8e9d01"), 4)
         );
 
         doReturn(Flux.fromIterable(favouriteProducts))
                 .when(this.favouriteProductsClient).findFavouriteProducts();
 
         doReturn(Flux.fromIterable(products))
-                .when(this.productsClient).findAllProducts("фильтр");
+                .when(this.productsClient).findProductsByIds(List.of(1, 3, 4));
 
         //when
         StepVerifier.create(this.controller.getFavouriteProductsPage(model, filter))
@@ -99,9 +150,11 @@ class ProductsControllerTest {
 
         //проверка действительно был вызван метод
         verify(this.favouriteProductsClient).findFavouriteProducts();
-        verify(this.productsClient).findAllProducts("фильтр");
+        //запрошены только избранные товары, а не весь каталог
+        verify(this.productsClient).findProductsByIds(List.of(1, 3, 4));
         //более не было никаких вызовов у данного mock объекта
         verifyNoMoreInteractions(this.favouriteProductsClient, this.productsClient);
         //не было вызовов к другим mock объектам
+        verifyNoInteractions(this.productReviewsClient);
     }
 }
\ No newline at end of file
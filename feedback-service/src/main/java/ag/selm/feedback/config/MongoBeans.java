@@ -0,0 +1,39 @@
+package ag.selm.feedback.config;
+
+import ag.selm.feedback.repository.LegacyUuidConverter;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+@Configuration
+public class MongoBeans {
+
+    //новые UUID хранятся в стандартном представлении (spring.data.mongodb.uuid-representation),
+    //_id старых документов читаются из прежнего
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(List.of(new LegacyUuidConverter()));
+    }
+
+    //автоматическое создание индексов в Spring Data MongoDB по умолчанию выключено;
+    //индексы из @Indexed/@CompoundIndex сущностей создаются при запуске, до того как сервер начнет принимать запросы.
+    //ensureIndex ничего не делает, если такой индекс уже есть
+    @Bean
+    public SmartInitializingSingleton mongoIndexesInitializer(ReactiveMongoTemplate mongoTemplate,
+                                                              MongoMappingContext mappingContext) {
+        IndexResolver indexResolver = IndexResolver.create(mappingContext);
+        return () -> Flux.fromIterable(mappingContext.getPersistentEntities())
+                .filter(entity -> entity.isAnnotationPresent(Document.class))
+                .concatMap(entity -> Flux.fromIterable(indexResolver.resolveIndexFor(entity.getTypeInformation()))
+                        .concatMap(index -> mongoTemplate.indexOps(entity.getType()).ensureIndex(index)))
+                .blockLast();
+    }
+}
@@ -0,0 +1,26 @@
+package ag.selm.feedback.controller;
+
+import ag.selm.feedback.service.ProductReviewsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("feedback-api/admin/product-rating-summaries")
+public class ProductRatingSummariesAdminRestController {
+
+    private final ProductReviewsService productReviewsService;
+
+    //пересчет сводок оценок по всем отзывам для исправления расхождений после сбоев;
+    //сводки заменяются целиком, и $inc отзывов, сохраненных во время пересчета, может потеряться,
+    //поэтому пересчет запускается вручную при остановленном приеме отзывов, а не по расписанию
+    @PostMapping("rebuild")
+    public Mono<ResponseEntity<Void>> rebuildProductRatingSummaries() {
+        return this.productReviewsService.rebuildProductRatingSummaries()
+                .then(Mono.just(ResponseEntity.noContent().build()));
+    }
+}
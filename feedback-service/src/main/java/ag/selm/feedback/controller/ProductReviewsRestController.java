@@ -1,6 +1,7 @@
 package ag.selm.feedback.controller;
 
 import ag.selm.feedback.controller.payload.NewProductReviewPayload;
+import ag.selm.feedback.entity.ProductRatingSummary;
 import ag.selm.feedback.entity.ProductReview;
 import ag.selm.feedback.service.ProductReviewsService;
 import jakarta.validation.Valid;
@@ -17,6 +18,9 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.security.Principal;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 
 import static org.springframework.data.mongodb.core.query.Criteria.where;
 import static org.springframework.data.mongodb.core.query.Query.query;
@@ -28,15 +32,34 @@ import static org.springframework.data.mongodb.core.query.Query.query;
 @Slf4j
 public class ProductReviewsRestController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ProductReviewsService productReviewsService;
 
     private final ReactiveMongoTemplate reactiveMongoTemplate;
 
+    //страница отзывов, новые первыми; если страница заполнена полностью, в заголовке передается
+    //идентификатор, после которого начинается следующая
     @GetMapping("by-product-id/{productId:\\d+}")
-    public Flux<ProductReview> findProductReviewsByProductId(@PathVariable("productId") int productId,
-                                                             Mono<Principal> principalMono,
-                                                             Mono<JwtAuthenticationToken> jwtAuthenticationTokenMono) {
-        return this.productReviewsService.findProductReviewsByProduct(productId);
+    public Mono<ResponseEntity<List<ProductReview>>> findProductReviewsByProductId(
+            @PathVariable("productId") int productId,
+            @RequestParam(name = "after", required = false) UUID after,
+            @RequestParam(name = "limit", defaultValue = "20") int limit,
+            Mono<Principal> principalMono,
+            Mono<JwtAuthenticationToken> jwtAuthenticationTokenMono) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return this.productReviewsService.findProductReviewsByProduct(productId, after, pageSize)
+                .collectList()
+                .map(productReviews -> {
+                    var response = ResponseEntity.ok();
+                    if (productReviews.size() == pageSize) {
+                        response.header(NEXT_CURSOR_HEADER,
+                                productReviews.get(productReviews.size() - 1).getId().toString());
+                    }
+                    return response.body(productReviews);
+                });
 
 //        return principalMono.flatMapMany(principal -> {
 //            log.info("Principal: {}", principal);
@@ -48,6 +71,19 @@ public class ProductReviewsRestController {
 //                .find(query(where("productId").is(productId)) , ProductReview.class);
     }
 
+    //количество, сумма и распределение оценок товара без чтения отзывов
+    @GetMapping("summary/{productId:\\d+}")
+    public Mono<ProductRatingSummary> findProductRatingSummary(@PathVariable("productId") int productId) {
+        return this.productReviewsService.findProductRatingSummary(productId);
+    }
+
+    //сводки оценок нескольких товаров (например, страницы списка) одним запросом;
+    //POST, потому что набор идентификаторов может не поместиться в URI
+    @PostMapping("summaries")
+    public Flux<ProductRatingSummary> findProductRatingSummaries(@RequestBody Mono<Set<Integer>> productIdsMono) {
+        return productIdsMono.flatMapMany(this.productReviewsService::findProductRatingSummaries);
+    }
+
     @PostMapping
     public Mono<ResponseEntity<ProductReview>> createProductReview(
             Mono<JwtAuthenticationToken> authenticationTokenMono,
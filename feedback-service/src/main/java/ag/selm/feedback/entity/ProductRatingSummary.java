@@ -0,0 +1,32 @@
+package ag.selm.feedback.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.HashMap;
+import java.util.Map;
+
+//сводка оценок товара: обновляется при каждом новом отзыве, поэтому читается одним документом
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document("product_rating_summary")
+public class ProductRatingSummary {
+
+    @Id
+    private int productId;
+
+    private long count;
+
+    private long sum;
+
+    //оценка (1-5) -> количество отзывов с ней; оценок, которых еще не ставили, в сводке нет
+    private Map<Integer, Long> histogram = new HashMap<>();
+
+    public double getAverage() {
+        return this.count == 0 ? 0 : (double) this.sum / this.count;
+    }
+}
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.UUID;
@@ -12,6 +13,8 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document("product_review")
+//отзывы товара читаются страницами в порядке _id
+@CompoundIndex(name = "product_review_product_id_id", def = "{'productId': 1, '_id': 1}")
 public class ProductReview {
 
     @Id
@@ -7,7 +7,8 @@ import reactor.core.publisher.Mono;
 
 import java.util.UUID;
 
-public interface FavouriteProductRepository extends ReactiveCrudRepository<FavouriteProduct, UUID> {
+public interface FavouriteProductRepository extends ReactiveCrudRepository<FavouriteProduct, UUID>,
+        FavouriteProductUpsertRepository {
 
 //    Mono<FavouriteProduct> save(FavouriteProduct favouriteProduct);
 
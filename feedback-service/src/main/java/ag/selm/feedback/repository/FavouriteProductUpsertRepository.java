@@ -0,0 +1,13 @@
+package ag.selm.feedback.repository;
+
+import ag.selm.feedback.entity.FavouriteProduct;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+public interface FavouriteProductUpsertRepository {
+
+    //возвращает уже добавленный товар или создает новый одним запросом findAndModify;
+    //id назначается только новому документу
+    Mono<FavouriteProduct> upsertByProductIdAndUserId(UUID id, int productId, String userId);
+}
@@ -0,0 +1,31 @@
+package ag.selm.feedback.repository;
+
+import ag.selm.feedback.entity.FavouriteProduct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@RequiredArgsConstructor
+public class FavouriteProductUpsertRepositoryImpl implements FavouriteProductUpsertRepository {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<FavouriteProduct> upsertByProductIdAndUserId(UUID id, int productId, String userId) {
+        //поля условия попадают в новый документ сами, при вставке задается только идентификатор;
+        //одновременные вставки одной пары упираются в уникальный индекс (userId, productId),
+        //и MongoDB повторяет такой upsert как обновление найденного документа
+        return this.mongoTemplate.update(FavouriteProduct.class)
+                .matching(query(where("userId").is(userId).and("productId").is(productId)))
+                .apply(new Update().setOnInsert("_id", id))
+                .withOptions(FindAndModifyOptions.options().upsert(true).returnNew(true))
+                .findAndModify();
+    }
+}
@@ -0,0 +1,47 @@
+package ag.selm.feedback.repository;
+
+import org.bson.BsonBinarySubType;
+import org.bson.types.Binary;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+
+import java.util.UUID;
+
+//документы, созданные до перехода на стандартное представление UUID, хранят _id в формате
+//JAVA_LEGACY (подтип 3, байты каждой половины в обратном порядке); драйвер отдает такие значения как Binary
+@ReadingConverter
+public class LegacyUuidConverter implements Converter<Binary, UUID> {
+
+    @Override
+    public UUID convert(Binary source) {
+        if (source.getType() != BsonBinarySubType.UUID_LEGACY.getValue() || source.length() != 16) {
+            throw new IllegalArgumentException("Binary value of subtype %d is not a legacy UUID"
+                    .formatted(source.getType()));
+        }
+        byte[] data = source.getData();
+        return new UUID(readLittleEndian(data, 0), readLittleEndian(data, 8));
+    }
+
+    //значение для сравнения с _id старых документов в запросах
+    public static Binary toLegacyBinary(UUID uuid) {
+        byte[] data = new byte[16];
+        writeLittleEndian(uuid.getMostSignificantBits(), data, 0);
+        writeLittleEndian(uuid.getLeastSignificantBits(), data, 8);
+        return new Binary(BsonBinarySubType.UUID_LEGACY, data);
+    }
+
+    private static long readLittleEndian(byte[] data, int offset) {
+        long value = 0;
+        for (int i = offset + 7; i >= offset; i--) {
+            value = value << 8 | (data[i] & 0xff);
+        }
+        return value;
+    }
+
+    private static void writeLittleEndian(long value, byte[] data, int offset) {
+        for (int i = offset; i < offset + 8; i++) {
+            data[i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package ag.selm.feedback.repository;
+
+import ag.selm.feedback.entity.ProductRatingSummary;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+public interface ProductRatingSummaryRepository extends ReactiveCrudRepository<ProductRatingSummary, Integer>,
+        ProductRatingSummaryUpdateRepository {
+}
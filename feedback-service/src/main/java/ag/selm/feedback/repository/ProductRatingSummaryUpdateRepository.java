@@ -0,0 +1,12 @@
+package ag.selm.feedback.repository;
+
+import reactor.core.publisher.Mono;
+
+public interface ProductRatingSummaryUpdateRepository {
+
+    //учитывает новую оценку одним атомарным $inc, сводка создается при первом отзыве
+    Mono<Void> incrementRating(int productId, int rating);
+
+    //пересчитывает все сводки по product_review
+    Mono<Void> rebuildFromReviews();
+}
@@ -0,0 +1,68 @@
+package ag.selm.feedback.repository;
+
+import ag.selm.feedback.entity.ProductRatingSummary;
+import ag.selm.feedback.entity.ProductReview;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@RequiredArgsConstructor
+public class ProductRatingSummaryUpdateRepositoryImpl implements ProductRatingSummaryUpdateRepository {
+
+    private static final String GROUP_BY_PRODUCT = """
+            {$group: {
+                _id: "$productId",
+                count: {$sum: 1},
+                sum: {$sum: "$rating"},
+                r1: {$sum: {$cond: [{$eq: ["$rating", 1]}, 1, 0]}},
+                r2: {$sum: {$cond: [{$eq: ["$rating", 2]}, 1, 0]}},
+                r3: {$sum: {$cond: [{$eq: ["$rating", 3]}, 1, 0]}},
+                r4: {$sum: {$cond: [{$eq: ["$rating", 4]}, 1, 0]}},
+                r5: {$sum: {$cond: [{$eq: ["$rating", 5]}, 1, 0]}}
+            }}""";
+
+    private static final String PROJECT_SUMMARY = """
+            {$project: {
+                count: 1,
+                sum: 1,
+                histogram: {"1": "$r1", "2": "$r2", "3": "$r3", "4": "$r4", "5": "$r5"}
+            }}""";
+
+    //сводки заменяются целиком; сводки товаров без отзывов не трогаются
+    private static final String MERGE_SUMMARIES = """
+            {$merge: {
+                into: "product_rating_summary",
+                on: "_id",
+                whenMatched: "replace",
+                whenNotMatched: "insert"
+            }}""";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Void> incrementRating(int productId, int rating) {
+        return this.mongoTemplate.upsert(query(where("_id").is(productId)),
+                        new Update()
+                                .inc("count", 1)
+                                .inc("sum", rating)
+                                .inc("histogram." + rating, 1),
+                        ProductRatingSummary.class)
+                .then();
+    }
+
+    @Override
+    public Mono<Void> rebuildFromReviews() {
+        //расчет и запись идут внутри MongoDB, отзывы в приложение не передаются
+        Aggregation aggregation = Aggregation.newAggregation(
+                context -> Document.parse(GROUP_BY_PRODUCT),
+                context -> Document.parse(PROJECT_SUMMARY),
+                context -> Document.parse(MERGE_SUMMARIES));
+        return this.mongoTemplate.aggregate(aggregation, ProductReview.class, Document.class).then();
+    }
+}
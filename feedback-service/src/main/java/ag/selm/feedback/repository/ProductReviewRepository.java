@@ -1,10 +1,11 @@
 package ag.selm.feedback.repository;
 
 import ag.selm.feedback.entity.ProductReview;
+import org.bson.types.Binary;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import reactor.core.publisher.Flux;
-import reactor.core.publisher.Mono;
 
 import java.util.UUID;
 
@@ -12,6 +13,14 @@ public interface ProductReviewRepository extends ReactiveCrudRepository<ProductR
 
 //    Mono<ProductReview> save(ProductReview productReview);
 
-    @Query("{'productId':  ?0}")
-    Flux<ProductReview> findAllByProductId(int productId);
+    //keyset-пагинация по индексу (productId, _id): новые отзывы первыми, следующая страница начинается
+    //сразу после последнего полученного идентификатора; количество отзывов на странице задает pageable
+    Flux<ProductReview> findAllByProductIdOrderByIdDesc(int productId, Pageable pageable);
+
+    Flux<ProductReview> findAllByProductIdAndIdLessThanOrderByIdDesc(int productId, UUID after, Pageable pageable);
+
+    //курсор из числа отзывов, созданных до перехода на UUIDv7: их _id хранятся в устаревшем представлении
+    //(см. LegacyUuidConverter) и сравниваются только в нем
+    @Query(value = "{'productId': ?0, '_id': {'$lt': ?1}}", sort = "{'_id': -1}")
+    Flux<ProductReview> findAllByProductIdAndLegacyIdLessThan(int productId, Binary after, Pageable pageable);
 }
@@ -4,21 +4,24 @@ import ag.selm.feedback.entity.FavouriteProduct;
 import ag.selm.feedback.repository.FavouriteProductRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.util.IdGenerator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.UUID;
-
 @Service
 @RequiredArgsConstructor
 public class DefaultFavouriteProductsService implements FavouriteProductsService {
 
     private final FavouriteProductRepository favouriteProductRepository;
 
+    private final IdGenerator idGenerator;
+
 
     @Override
     public Mono<FavouriteProduct> addProductToFavourites(int productId, String userId) {
-        return this.favouriteProductRepository.save(new FavouriteProduct(UUID.randomUUID(), productId, userId));
+        //повторное добавление (двойной клик, повтор запроса) возвращает уже существующую запись
+        return this.favouriteProductRepository.upsertByProductIdAndUserId(this.idGenerator.generateId(), productId,
+                userId);
     }
 
     @Override
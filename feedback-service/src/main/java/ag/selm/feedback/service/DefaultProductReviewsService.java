@@ -1,12 +1,19 @@
 package ag.selm.feedback.service;
 
+import ag.selm.feedback.entity.ProductRatingSummary;
 import ag.selm.feedback.entity.ProductReview;
+import ag.selm.feedback.repository.LegacyUuidConverter;
+import ag.selm.feedback.repository.ProductRatingSummaryRepository;
 import ag.selm.feedback.repository.ProductReviewRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.util.IdGenerator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -15,13 +22,51 @@ public class DefaultProductReviewsService implements ProductReviewsService {
 
     private final ProductReviewRepository productReviewRepository;
 
+    private final ProductRatingSummaryRepository productRatingSummaryRepository;
+
+    //UUIDv7: порядок _id совпадает с порядком создания отзывов
+    private final IdGenerator idGenerator;
+
     @Override
     public Mono<ProductReview> createProductReview(int productId, int rating, String review, String userId) {
-        return this.productReviewRepository.save(new ProductReview(UUID.randomUUID(), productId, rating, review, userId));
+        //сводка обновляется после сохранения отзыва; если обновление не дошло, ее исправит пересчет
+        //(см. ProductRatingSummariesAdminRestController)
+        return this.productReviewRepository.save(new ProductReview(this.idGenerator.generateId(), productId, rating,
+                        review, userId))
+                .flatMap(productReview -> this.productRatingSummaryRepository.incrementRating(productId, rating)
+                        .thenReturn(productReview));
+    }
+
+    @Override
+    public Flux<ProductReview> findProductReviewsByProduct(int productId, UUID after, int limit) {
+        if (after == null) {
+            return this.productReviewRepository.findAllByProductIdOrderByIdDesc(productId, PageRequest.ofSize(limit));
+        } else if (after.version() == 7) {
+            return this.productReviewRepository.findAllByProductIdAndIdLessThanOrderByIdDesc(productId, after,
+                    PageRequest.ofSize(limit));
+        } else {
+            //отзывы со старыми идентификаторами хранятся в подтипе 3 и в порядке _id идут после всех новых
+            return this.productReviewRepository.findAllByProductIdAndLegacyIdLessThan(productId,
+                    LegacyUuidConverter.toLegacyBinary(after), PageRequest.ofSize(limit));
+        }
+    }
+
+    @Override
+    public Mono<ProductRatingSummary> findProductRatingSummary(int productId) {
+        //у товара без отзывов сводки нет
+        return this.productRatingSummaryRepository.findById(productId)
+                .defaultIfEmpty(new ProductRatingSummary(productId, 0, 0, Map.of()));
+    }
+
+    @Override
+    public Flux<ProductRatingSummary> findProductRatingSummaries(Collection<Integer> productIds) {
+        //один запрос {_id: {$in: [...]}}, сводки передаются по мере чтения курсора;
+        //товаров без отзывов в ответе нет
+        return this.productRatingSummaryRepository.findAllById(productIds);
     }
 
     @Override
-    public Flux<ProductReview> findProductReviewsByProduct(int productId) {
-        return this.productReviewRepository.findAllByProductId(productId);
+    public Mono<Void> rebuildProductRatingSummaries() {
+        return this.productRatingSummaryRepository.rebuildFromReviews();
     }
 }
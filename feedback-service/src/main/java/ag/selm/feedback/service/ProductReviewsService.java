@@ -1,12 +1,22 @@
 package ag.selm.feedback.service;
 
+import ag.selm.feedback.entity.ProductRatingSummary;
 import ag.selm.feedback.entity.ProductReview;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+import java.util.UUID;
+
 public interface ProductReviewsService {
 
     Mono<ProductReview> createProductReview(int productId, int rating, String review, String userId);
 
-    Flux<ProductReview> findProductReviewsByProduct(int productId);
+    Flux<ProductReview> findProductReviewsByProduct(int productId, UUID after, int limit);
+
+    Mono<ProductRatingSummary> findProductRatingSummary(int productId);
+
+    Flux<ProductRatingSummary> findProductRatingSummaries(Collection<Integer> productIds);
+
+    Mono<Void> rebuildProductRatingSummaries();
 }
@@ -0,0 +1,56 @@
+package ag.selm.feedback.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.util.IdGenerator;
+
+import java.time.Clock;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+//идентификаторы UUIDv7 (RFC 9562): 48 бит времени в миллисекундах, 12 бит счетчика, 62 случайных бита.
+//новые документы ложатся в конец индекса _id, а порядок _id совпадает с порядком создания,
+//поэтому идентификатор годится как курсор страницы
+@Component
+public class UuidV7Generator implements IdGenerator {
+
+    private static final int COUNTER_BITS = 12;
+
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+
+    private final Clock clock;
+
+    //время и счетчик последнего выданного идентификатора одним числом, чтобы менять их одной операцией CAS
+    private final AtomicLong lastTimestampAndCounter = new AtomicLong();
+
+    public UuidV7Generator() {
+        this(Clock.systemUTC());
+    }
+
+    UuidV7Generator(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public UUID generateId() {
+        long millis = this.clock.millis();
+        long last;
+        long next;
+        do {
+            last = this.lastTimestampAndCounter.get();
+            if (millis > last >>> COUNTER_BITS) {
+                //новая миллисекунда: счетчик начинается со случайного значения в нижней половине диапазона
+                next = millis << COUNTER_BITS | ThreadLocalRandom.current().nextLong(COUNTER_MASK >>> 1);
+            } else {
+                //та же миллисекунда или часы ушли назад: переполнение счетчика переходит во время,
+                //идентификаторы остаются возрастающими
+                next = last + 1;
+            }
+        } while (!this.lastTimestampAndCounter.compareAndSet(last, next));
+
+        long mostSigBits = (next >>> COUNTER_BITS) << 16 | 0x7000L | (next & COUNTER_MASK);
+        //идентификаторы не секретны, SecureRandom (как в UUID.randomUUID) здесь не нужен
+        long leastSigBits = ThreadLocalRandom.current().nextLong() >>> 2 | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
@@ -12,10 +12,13 @@ import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.test.StepVerifier;
 
 import java.util.List;
 import java.util.UUID;
 
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
 import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.mockJwt;
 
 //интеграционный тест
@@ -162,6 +165,38 @@ class FavouriteProductsRestControllerIT {
                 ).jsonPath("$.id").exists();
     }
 
+    @Test
+    void addProductToFavourites_ProductIsAlreadyFavourite_ReturnsExistingFavouriteProduct() {
+        //given
+        //when
+        this.webTestClient
+                .mutateWith(mockJwt()
+                        .jwt(builder -> builder.subject("user-1")))
+                .post()
+                .uri("/feedback-api/favourite-products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("""
+                        {
+                            "productId": 3
+                        }""")
+                .exchange()
+        //then
+                .expectStatus().isCreated()
+                .expectBody()
+                .json("""
+                        {
+                            "id": "be77f95a-cb05-11ee-91a3-1bdc94fa9de4",
+                            "productId": 3,
+                            "userId": "user-1"
+                        }""");
+
+        //дубликат не создан
+        StepVerifier.create(this.reactiveMongoTemplate.count(
+                        query(where("userId").is("user-1").and("productId").is(3)), FavouriteProduct.class))
+                .expectNext(1L)
+                .verifyComplete();
+    }
+
     @Test
     void addProductToFavourites_RequestIsInvalid_ReturnsBadRequest() {
         //given
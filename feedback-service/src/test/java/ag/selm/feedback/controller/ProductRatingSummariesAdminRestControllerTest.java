@@ -0,0 +1,34 @@
+package ag.selm.feedback.controller;
+
+import ag.selm.feedback.service.ProductReviewsService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductRatingSummariesAdminRestControllerTest {
+
+    ProductReviewsService productReviewsService = Mockito.mock(ProductReviewsService.class);
+
+    ProductRatingSummariesAdminRestController controller =
+            new ProductRatingSummariesAdminRestController(this.productReviewsService);
+
+    @Test
+    void rebuildProductRatingSummaries_ReturnsNoContent() {
+        //given
+        doReturn(Mono.empty()).when(this.productReviewsService).rebuildProductRatingSummaries();
+
+        //when
+        StepVerifier.create(this.controller.rebuildProductRatingSummaries())
+        //then
+                .assertNext(response -> assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode()))
+                .verifyComplete();
+
+        verify(this.productReviewsService).rebuildProductRatingSummaries();
+        verifyNoMoreInteractions(this.productReviewsService);
+    }
+}
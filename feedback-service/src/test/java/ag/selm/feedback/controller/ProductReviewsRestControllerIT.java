@@ -1,7 +1,11 @@
 package ag.selm.feedback.controller;
 
+import ag.selm.feedback.entity.ProductRatingSummary;
 import ag.selm.feedback.entity.ProductReview;
+import ag.selm.feedback.repository.LegacyUuidConverter;
+import ag.selm.feedback.service.ProductReviewsService;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,8 +20,10 @@ import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.mockJwt;
 
 //интеграционный тест
@@ -33,14 +39,17 @@ class ProductReviewsRestControllerIT {
     @Autowired
     ReactiveMongoTemplate reactiveMongoTemplate;
 
+    @Autowired
+    ProductReviewsService productReviewsService;
+
     @BeforeEach
     void setUp() {
         this.reactiveMongoTemplate.insertAll(List.of(
-                new ProductReview(UUID.fromString("bd7779c2-cb05-11ee-b5f3-df46a1249898"), 1, 1,
+                new ProductReview(UUID.fromString("018da2f0-5b3c-7a41-9c2e-4f6b8d1a3e57"), 1, 1,
                         "Отзыв №1", "user-1"),
-                new ProductReview(UUID.fromString("be424abc-cb05-11ee-ab16-2b747e61f570"), 1, 3,
+                new ProductReview(UUID.fromString("018da2f1-0c7e-7b92-a4d3-5e7f9a2b4c68"), 1, 3,
                         "Отзыв №2", "user-2"),
-                new ProductReview(UUID.fromString("be77f95a-cb05-11ee-91a3-1bdc94fa9de4"), 1, 5,
+                new ProductReview(UUID.fromString("018da2f1-9e21-7c03-b5e4-6f8a0b3c5d79"), 1, 5,
                         "Отзыв №3", "user-3")
         ))
                 //заблокирует текущий поток, дождется пока это все будет добавлено
@@ -51,6 +60,7 @@ class ProductReviewsRestControllerIT {
     @AfterEach
     void tearDown() {
         this.reactiveMongoTemplate.remove(ProductReview.class).all().block();
+        this.reactiveMongoTemplate.remove(ProductRatingSummary.class).all().block();
     }
 
     @Test
@@ -78,15 +88,93 @@ class ProductReviewsRestControllerIT {
                 .json("""
                         [
                             {
-                                "id": "bd7779c2-cb05-11ee-b5f3-df46a1249898",
+                                "id": "018da2f0-5b3c-7a41-9c2e-4f6b8d1a3e57",
                                 "productId": 1,
                                 "rating": 1,
                                 "review": "Отзыв №1",
                                 "userId": "user-1"
                             },
-                            {"id": "be424abc-cb05-11ee-ab16-2b747e61f570", "productId": 1, "rating": 3, "review": "Отзыв №2", "userId": "user-2"},
-                            {"id": "be77f95a-cb05-11ee-91a3-1bdc94fa9de4", "productId": 1, "rating": 5, "review": "Отзыв №3", "userId": "user-3"}
+                            {"id": "018da2f1-0c7e-7b92-a4d3-5e7f9a2b4c68", "productId": 1, "rating": 3, "review": "Отзыв №2", "userId": "user-2"},
+                            {"id": "018da2f1-9e21-7c03-b5e4-6f8a0b3c5d79", "productId": 1, "rating": 5, "review": "Отзыв №3", "userId": "user-3"}
+                        ]""");
+    }
+
+    @Test
+    void findProductReviewsByProductId_LimitIsSet_ReturnsPagesByCursor() {
+        // given
+        // when
+        var firstPage = this.webTestClient.mutateWith(mockJwt())
+                .get()
+                .uri("/feedback-api/product-reviews/by-product-id/1?limit=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ProductReview.class).hasSize(2)
+                .returnResult();
+        var nextCursor = firstPage.getResponseHeaders().getFirst(ProductReviewsRestController.NEXT_CURSOR_HEADER);
+
+        var secondPage = this.webTestClient.mutateWith(mockJwt())
+                .get()
+                .uri("/feedback-api/product-reviews/by-product-id/1?limit=2&after={after}", nextCursor)
+                .exchange()
+                .expectStatus().isOk()
+                //последняя страница неполная, курсора следующей нет
+                .expectHeader().doesNotExist(ProductReviewsRestController.NEXT_CURSOR_HEADER)
+                .expectBodyList(ProductReview.class).hasSize(1)
+                .returnResult();
+
+        // then
+        assertNotNull(nextCursor);
+        assertEquals(nextCursor, firstPage.getResponseBody().get(1).getId().toString());
+        assertFalse(firstPage.getResponseBody().contains(secondPage.getResponseBody().get(0)));
+    }
+
+    @Test
+    void findProductReviewsByProductId_ReviewsHaveLegacyIds_ReturnsReviewsAfterNewOnes() {
+        // given
+        //отзыв, сохраненный до перехода на стандартное представление UUID
+        this.reactiveMongoTemplate.insert(new Document()
+                        .append("_id", LegacyUuidConverter.toLegacyBinary(
+                                UUID.fromString("5a9ba234-cbd6-11ee-acab-5748ca6678b9")))
+                        .append("productId", 1)
+                        .append("rating", 4)
+                        .append("review", "Старый отзыв")
+                        .append("userId", "user-4"), "product_review")
+                .block();
+
+        // when
+        var lastNewReviewPage = this.webTestClient.mutateWith(mockJwt())
+                .get()
+                .uri("/feedback-api/product-reviews/by-product-id/1?limit=3")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ProductReview.class).hasSize(3)
+                .returnResult();
+        var nextCursor = lastNewReviewPage.getResponseHeaders()
+                .getFirst(ProductReviewsRestController.NEXT_CURSOR_HEADER);
+
+        // then
+        assertEquals("018da2f0-5b3c-7a41-9c2e-4f6b8d1a3e57", nextCursor);
+
+        //после новых отзывов идут старые
+        this.webTestClient.mutateWith(mockJwt())
+                .get()
+                .uri("/feedback-api/product-reviews/by-product-id/1?limit=3&after={after}", nextCursor)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(ProductReviewsRestController.NEXT_CURSOR_HEADER)
+                .expectBody()
+                .json("""
+                        [
+                            {"id": "5a9ba234-cbd6-11ee-acab-5748ca6678b9", "productId": 1, "rating": 4, "review": "Старый отзыв", "userId": "user-4"}
                         ]""");
+
+        //курсор из старого отзыва сравнивается в его представлении
+        this.webTestClient.mutateWith(mockJwt())
+                .get()
+                .uri("/feedback-api/product-reviews/by-product-id/1?after=5a9ba234-cbd6-11ee-acab-5748ca6678b9")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json("[]");
     }
 
     @Test
@@ -137,6 +225,107 @@ class ProductReviewsRestControllerIT {
                 .jsonPath("$.id").exists();
     }
 
+    @Test
+    void createProductReview_RequestIsValid_UpdatesRatingSummary(){
+        //given
+        this.productReviewsService.rebuildProductRatingSummaries().block();
+
+        //when
+        this.webTestClient
+                .mutateWith(mockJwt().jwt(builder -> builder.subject("user-tester")))
+                .post()
+                .uri("/feedback-api/product-reviews")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("""
+                   {
+                           "productId": 1,
+                           "rating": 5,
+                           "review": "Отлично"
+                   }""")
+                .exchange()
+                .expectStatus().isCreated();
+
+        //then
+        this.webTestClient
+                .mutateWith(mockJwt())
+                .get()
+                .uri("/feedback-api/product-reviews/summary/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .json("""
+                        {
+                            "productId": 1,
+                            "count": 4,
+                            "sum": 14,
+                            "histogram": {"1": 1, "3": 1, "5": 2},
+                            "average": 3.5
+                        }""");
+    }
+
+    @Test
+    void findProductRatingSummary_SummariesAreRebuilt_ReturnsSummaryFromReviews(){
+        //given
+        //сводки нет: отзывы добавлены в обход сервиса
+        this.webTestClient
+                .mutateWith(mockJwt())
+                .get()
+                .uri("/feedback-api/product-reviews/summary/1")
+                .exchange()
+                .expectBody()
+                .json("""
+                        {"productId": 1, "count": 0, "sum": 0, "histogram": {}}""");
+
+        //when
+        this.productReviewsService.rebuildProductRatingSummaries().block();
+
+        //then
+        this.webTestClient
+                .mutateWith(mockJwt())
+                .get()
+                .uri("/feedback-api/product-reviews/summary/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .json("""
+                        {
+                            "productId": 1,
+                            "count": 3,
+                            "sum": 9,
+                            "histogram": {"1": 1, "2": 0, "3": 1, "4": 0, "5": 1},
+                            "average": 3.0
+                        }""");
+    }
+
+    @Test
+    void findProductRatingSummaries_ReturnsSummariesOfRequestedProducts(){
+        //given
+        this.reactiveMongoTemplate.insertAll(List.of(
+                        new ProductRatingSummary(1, 3, 9, Map.of(1, 1L, 3, 1L, 5, 1L)),
+                        new ProductRatingSummary(2, 1, 4, Map.of(4, 1L)),
+                        new ProductRatingSummary(3, 1, 2, Map.of(2, 1L))))
+                .blockLast();
+
+        //when
+        this.webTestClient
+                .mutateWith(mockJwt())
+                .post()
+                .uri("/feedback-api/product-reviews/summaries")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("[1, 3, 4]")
+                .exchange()
+        //then
+                .expectStatus().isOk()
+                .expectBody()
+                //у товара 4 отзывов нет, сводки для него нет
+                .json("""
+                        [
+                            {"productId": 1, "count": 3, "sum": 9, "average": 3.0},
+                            {"productId": 3, "count": 1, "sum": 2, "average": 2.0}
+                        ]""")
+                .jsonPath("$.length()").isEqualTo(2);
+    }
+
     @Test
     void createProductReview_RequestIsInvalid_ReturnsBadRequest(){
         //given
@@ -1,6 +1,7 @@
 package ag.selm.feedback.controller;
 
 import ag.selm.feedback.controller.payload.NewProductReviewPayload;
+import ag.selm.feedback.entity.ProductRatingSummary;
 import ag.selm.feedback.entity.ProductReview;
 import ag.selm.feedback.service.ProductReviewsService;
 import org.junit.jupiter.api.Test;
@@ -16,6 +17,8 @@ import reactor.test.StepVerifier;
 
 import java.net.URI;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -44,26 +47,65 @@ class ProductReviewsRestControllerTest {
                 .claim("sub", "5f1d5cf8-cbd6-11ee-9579-cf24d050b47c").build());
 
         doReturn(Flux.fromIterable(productReviews))
-                .when(this.productReviewsService).findProductReviewsByProduct(1);
+                .when(this.productReviewsService).findProductReviewsByProduct(1, null, 3);
 
         //when
-        StepVerifier.create(this.controller.findProductReviewsByProductId(1,
+        StepVerifier.create(this.controller.findProductReviewsByProductId(1, null, 3,
                 Mono.just(principal),
                 Mono.just(jwtAuthenticationToken)))
         //then
-                .expectNext(new ProductReview(UUID.fromString("bd7779c2-cb05-11ee-b5f3-df46a1249898"), 1, 1, "на 1", "user-1"),
-                        new ProductReview(UUID.fromString("be424abc-cb05-11ee-ab16-2b747e61f570"), 1, 3, "на 3", "user-2"),
-                        new ProductReview(UUID.fromString("be77f95a-cb05-11ee-91a3-1bdc94fa9de4"), 1, 5, "на 5", "user-3"))
+                //страница заполнена полностью - передается курсор следующей
+                .expectNext(ResponseEntity.ok()
+                        .header(ProductReviewsRestController.NEXT_CURSOR_HEADER, "be77f95a-cb05-11ee-91a3-1bdc94fa9de4")
+                        .body(productReviews))
                 .verifyComplete();
 
         //проверка действительно был вызван метод
-        verify(this.productReviewsService).findProductReviewsByProduct(1);
+        verify(this.productReviewsService).findProductReviewsByProduct(1, null, 3);
         //более не было никаких вызовов у данного mock объекта
         verifyNoMoreInteractions(this.productReviewsService);
         //не было вызовов к другим mock объектам
         verifyNoInteractions(this.reactiveMongoTemplate);
     }
 
+    @Test
+    void findProductRatingSummary_ReturnsSummary() {
+        //given
+        doReturn(Mono.just(new ProductRatingSummary(1, 3, 9, Map.of(1, 1L, 3, 1L, 5, 1L))))
+                .when(this.productReviewsService).findProductRatingSummary(1);
+
+        //when
+        StepVerifier.create(this.controller.findProductRatingSummary(1))
+        //then
+                .expectNext(new ProductRatingSummary(1, 3, 9, Map.of(1, 1L, 3, 1L, 5, 1L)))
+                .verifyComplete();
+
+        //проверка действительно был вызван метод
+        verify(this.productReviewsService).findProductRatingSummary(1);
+        //более не было никаких вызовов у данного mock объекта
+        verifyNoMoreInteractions(this.productReviewsService);
+        //не было вызовов к другим mock объектам
+        verifyNoInteractions(this.reactiveMongoTemplate);
+    }
+
+    @Test
+    void findProductRatingSummaries_ReturnsSummaries() {
+        //given
+        doReturn(Flux.just(new ProductRatingSummary(1, 3, 9, Map.of(1, 1L, 3, 1L, 5, 1L))))
+                .when(this.productReviewsService).findProductRatingSummaries(Set.of(1, 2));
+
+        //when
+        StepVerifier.create(this.controller.findProductRatingSummaries(Mono.just(Set.of(1, 2))))
+        //then
+                .expectNext(new ProductRatingSummary(1, 3, 9, Map.of(1, 1L, 3, 1L, 5, 1L)))
+                .verifyComplete();
+
+        //проверка действительно был вызван метод
+        verify(this.productReviewsService).findProductRatingSummaries(Set.of(1, 2));
+        //более не было никаких вызовов у данного mock объекта
+        verifyNoMoreInteractions(this.productReviewsService);
+    }
+
     @Test
     void createProductReview_ReturnsCreatedProductReview() {
         //given
@@ -4,6 +4,7 @@ import ag.selm.feedback.entity.FavouriteProduct;
 import ag.selm.feedback.repository.FavouriteProductRepository;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.util.IdGenerator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
@@ -12,34 +13,33 @@ import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 class DefaultFavouriteProductsServiceTest {
 
     FavouriteProductRepository favouriteProductRepository = Mockito.mock(FavouriteProductRepository.class);
 
-    DefaultFavouriteProductsService service = new DefaultFavouriteProductsService(favouriteProductRepository);
+    IdGenerator idGenerator = () -> UUID.fromString("018da2f0-5b3c-7a41-9c2e-4f6b8d1a3e57");
+
+    DefaultFavouriteProductsService service = new DefaultFavouriteProductsService(favouriteProductRepository,
+            idGenerator);
 
     @Test
     void addProductToFavourites_ReturnsCreatedFavouriteProduct() {
         //given
-        doAnswer(invocation -> Mono.justOrEmpty(invocation.getArguments()[0]))
-                .when(this.favouriteProductRepository).save(any());
+        doReturn(Mono.just(new FavouriteProduct(UUID.fromString("86efa22c-cbae-11ee-ab01-679baf165fb7"), 1, "user-1")))
+                .when(this.favouriteProductRepository)
+                .upsertByProductIdAndUserId(UUID.fromString("018da2f0-5b3c-7a41-9c2e-4f6b8d1a3e57"), 1, "user-1");
 
         //when
         StepVerifier.create(this.service.addProductToFavourites(1, "user-1"))
         //then
-                .expectNextMatches(favouriteProduct ->favouriteProduct.getProductId() == 1 &&
-                        favouriteProduct.getUserId().equals("user-1") &&
-                        favouriteProduct.getId() != null)
+                .expectNext(new FavouriteProduct(UUID.fromString("86efa22c-cbae-11ee-ab01-679baf165fb7"), 1, "user-1"))
                 .verifyComplete();
 
         //проверка действительно был вызван метод
-        verify(this.favouriteProductRepository).save(argThat(favouriteProduct ->
-                favouriteProduct.getProductId() == 1 &&
-                favouriteProduct.getUserId().equals("user-1") &&
-                favouriteProduct.getId() != null));
+        verify(this.favouriteProductRepository)
+                .upsertByProductIdAndUserId(UUID.fromString("018da2f0-5b3c-7a41-9c2e-4f6b8d1a3e57"), 1, "user-1");
         //более не было никаких вызовов у данного mock объекта
         verifyNoMoreInteractions(this.favouriteProductRepository);
     }
@@ -1,14 +1,21 @@
 package ag.selm.feedback.service;
 
+import ag.selm.feedback.entity.ProductRatingSummary;
 import ag.selm.feedback.entity.ProductReview;
+import ag.selm.feedback.repository.LegacyUuidConverter;
+import ag.selm.feedback.repository.ProductRatingSummaryRepository;
 import ag.selm.feedback.repository.ProductReviewRepository;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.util.IdGenerator;
+import org.springframework.data.domain.PageRequest;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -19,13 +26,20 @@ class DefaultProductReviewsServiceTest {
 
     ProductReviewRepository productReviewRepository = Mockito.mock(ProductReviewRepository.class);
 
-    DefaultProductReviewsService service = new DefaultProductReviewsService(productReviewRepository);
+    IdGenerator idGenerator = () -> UUID.fromString("018da2f0-5b3c-7a41-9c2e-4f6b8d1a3e57");
+
+    ProductRatingSummaryRepository productRatingSummaryRepository = Mockito.mock(ProductRatingSummaryRepository.class);
+
+    DefaultProductReviewsService service = new DefaultProductReviewsService(productReviewRepository,
+            productRatingSummaryRepository, idGenerator);
 
     @Test
     void createProductReview_ReturnsCreatedProductReview() {
         //given
         doAnswer(invocation -> Mono.justOrEmpty(invocation.getArguments()[0]))
                 .when(this.productReviewRepository).save(any());
+        doReturn(Mono.empty())
+                .when(this.productRatingSummaryRepository).incrementRating(1, 3);
 
         //when
         StepVerifier.create(this.service.createProductReview(1, 3, "На 3", "user-1"))
@@ -34,7 +48,7 @@ class DefaultProductReviewsServiceTest {
                         productReview.getProductId() == 1 && productReview.getRating() == 3 &&
                                 productReview.getUserId().equals("user-1") &&
                                 productReview.getReview().equals("На 3")
-                                && productReview.getId() != null)
+                                && productReview.getId().equals(UUID.fromString("018da2f0-5b3c-7a41-9c2e-4f6b8d1a3e57")))
                 .verifyComplete();
 
         //проверка действительно был вызван метод
@@ -42,9 +56,11 @@ class DefaultProductReviewsServiceTest {
                 productReview.getProductId() == 1 && productReview.getRating() == 3 &&
                         productReview.getUserId().equals("user-1") &&
                         productReview.getReview().equals("На 3")
-                        && productReview.getId() != null));
+                        && productReview.getId().equals(UUID.fromString("018da2f0-5b3c-7a41-9c2e-4f6b8d1a3e57"))));
+        //оценка учтена в сводке товара
+        verify(this.productRatingSummaryRepository).incrementRating(1, 3);
         //более не было никаких вызовов у данного mock объекта
-        verifyNoMoreInteractions(this.productReviewRepository);
+        verifyNoMoreInteractions(this.productReviewRepository, this.productRatingSummaryRepository);
     }
 
     @Test
@@ -55,10 +71,10 @@ class DefaultProductReviewsServiceTest {
                 new ProductReview(UUID.fromString("be424abc-cb05-11ee-ab16-2b747e61f570"), 1, 3, "На 3", "user-2"),
                 new ProductReview(UUID.fromString("be77f95a-cb05-11ee-91a3-1bdc94fa9de4"), 1, 5, "На 5", "user-3")
         )))
-                .when(this.productReviewRepository).findAllByProductId(1);
+                .when(this.productReviewRepository).findAllByProductIdOrderByIdDesc(1, PageRequest.ofSize(20));
 
         //when
-        StepVerifier.create(this.service.findProductReviewsByProduct(1))
+        StepVerifier.create(this.service.findProductReviewsByProduct(1, null, 20))
                 //then
                 .expectNext(  new ProductReview(UUID.fromString("bd7779c2-cb05-11ee-b5f3-df46a1249898"), 1, 1, "На 1", "user-1"),
                         new ProductReview(UUID.fromString("be424abc-cb05-11ee-ab16-2b747e61f570"), 1, 3, "На 3", "user-2"),
@@ -66,8 +82,105 @@ class DefaultProductReviewsServiceTest {
                 .verifyComplete();
 
         //проверка действительно был вызван метод
-        verify(productReviewRepository).findAllByProductId(1);
+        verify(productReviewRepository).findAllByProductIdOrderByIdDesc(1, PageRequest.ofSize(20));
+        //более не было никаких вызовов у данного mock объекта
+        verifyNoMoreInteractions(this.productReviewRepository);
+    }
+
+    @Test
+    void findProductReviewsByProduct_AfterIsSet_ReturnsProductReviewsAfterCursor() {
+        //given
+        var after = UUID.fromString("018da2f1-0c7e-7b92-a4d3-5e7f9a2b4c68");
+        doReturn(Flux.just(
+                new ProductReview(UUID.fromString("018da2f0-5b3c-7a41-9c2e-4f6b8d1a3e57"), 1, 1, "На 1", "user-1")))
+                .when(this.productReviewRepository)
+                .findAllByProductIdAndIdLessThanOrderByIdDesc(1, after, PageRequest.ofSize(2));
+
+        //when
+        StepVerifier.create(this.service.findProductReviewsByProduct(1, after, 2))
+                //then
+                .expectNext(new ProductReview(UUID.fromString("018da2f0-5b3c-7a41-9c2e-4f6b8d1a3e57"), 1, 1, "На 1", "user-1"))
+                .verifyComplete();
+
+        //проверка действительно был вызван метод
+        verify(productReviewRepository).findAllByProductIdAndIdLessThanOrderByIdDesc(1, after, PageRequest.ofSize(2));
         //более не было никаких вызовов у данного mock объекта
         verifyNoMoreInteractions(this.productReviewRepository);
     }
-}
\ No newline at end of file
+
+    @Test
+    void findProductReviewsByProduct_AfterIsLegacyId_ComparesLegacyRepresentation() {
+        //given
+        var after = UUID.fromString("be424abc-cb05-11ee-ab16-2b747e61f570");
+        doReturn(Flux.just(
+                new ProductReview(UUID.fromString("bd7779c2-cb05-11ee-b5f3-df46a1249898"), 1, 1, "На 1", "user-1")))
+                .when(this.productReviewRepository)
+                .findAllByProductIdAndLegacyIdLessThan(1, LegacyUuidConverter.toLegacyBinary(after),
+                        PageRequest.ofSize(2));
+
+        //when
+        StepVerifier.create(this.service.findProductReviewsByProduct(1, after, 2))
+                //then
+                .expectNext(new ProductReview(UUID.fromString("bd7779c2-cb05-11ee-b5f3-df46a1249898"), 1, 1, "На 1", "user-1"))
+                .verifyComplete();
+
+        //проверка действительно был вызван метод
+        verify(productReviewRepository).findAllByProductIdAndLegacyIdLessThan(1,
+                LegacyUuidConverter.toLegacyBinary(after), PageRequest.ofSize(2));
+        //более не было никаких вызовов у данного mock объекта
+        verifyNoMoreInteractions(this.productReviewRepository);
+    }
+
+    @Test
+    void findProductRatingSummary_SummaryExists_ReturnsSummary() {
+        //given
+        doReturn(Mono.just(new ProductRatingSummary(1, 2, 7, Map.of(3, 1L, 4, 1L))))
+                .when(this.productRatingSummaryRepository).findById(1);
+
+        //when
+        StepVerifier.create(this.service.findProductRatingSummary(1))
+                //then
+                .expectNext(new ProductRatingSummary(1, 2, 7, Map.of(3, 1L, 4, 1L)))
+                .verifyComplete();
+
+        //проверка действительно был вызван метод
+        verify(this.productRatingSummaryRepository).findById(1);
+        //более не было никаких вызовов у данного mock объекта
+        verifyNoMoreInteractions(this.productRatingSummaryRepository);
+        //отзывы не читались
+        verifyNoInteractions(this.productReviewRepository);
+    }
+
+    @Test
+    void findProductRatingSummary_ProductHasNoReviews_ReturnsEmptySummary() {
+        //given
+        doReturn(Mono.empty())
+                .when(this.productRatingSummaryRepository).findById(1);
+
+        //when
+        StepVerifier.create(this.service.findProductRatingSummary(1))
+                //then
+                .expectNext(new ProductRatingSummary(1, 0, 0, Map.of()))
+                .verifyComplete();
+    }
+
+    @Test
+    void findProductRatingSummaries_ReturnsSummariesOfProductsWithReviews() {
+        //given
+        doReturn(Flux.just(new ProductRatingSummary(1, 2, 7, Map.of(3, 1L, 4, 1L)),
+                new ProductRatingSummary(3, 1, 5, Map.of(5, 1L))))
+                .when(this.productRatingSummaryRepository).findAllById(Set.of(1, 2, 3));
+
+        //when
+        StepVerifier.create(this.service.findProductRatingSummaries(Set.of(1, 2, 3)))
+                //then
+                .expectNext(new ProductRatingSummary(1, 2, 7, Map.of(3, 1L, 4, 1L)),
+                        new ProductRatingSummary(3, 1, 5, Map.of(5, 1L)))
+                .verifyComplete();
+
+        //проверка действительно был вызван метод
+        verify(this.productRatingSummaryRepository).findAllById(Set.of(1, 2, 3));
+        //более не было никаких вызовов у данного mock объекта
+        verifyNoMoreInteractions(this.productRatingSummaryRepository);
+    }
+}
@@ -0,0 +1,103 @@
+package ag.selm.feedback.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    void generateId_ReturnsVersion7UuidWithTimestamp() {
+        //given
+        var instant = Instant.parse("2024-02-14T10:15:30.123Z");
+        var generator = new UuidV7Generator(Clock.fixed(instant, ZoneOffset.UTC));
+
+        //when
+        var result = generator.generateId();
+
+        //then
+        assertEquals(7, result.version());
+        assertEquals(2, result.variant());
+        assertEquals(instant.toEpochMilli(), result.getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    void generateId_ClockDoesNotMove_ReturnsIncreasingIds() {
+        //given
+        var generator = new UuidV7Generator(Clock.fixed(Instant.parse("2024-02-14T10:15:30.123Z"), ZoneOffset.UTC));
+
+        //when
+        //больше, чем вмещает 12-битный счетчик одной миллисекунды
+        var result = Stream.generate(generator::generateId).limit(10_000).toList();
+
+        //then
+        for (int i = 1; i < result.size(); i++) {
+            assertTrue(Long.compareUnsigned(result.get(i - 1).getMostSignificantBits(),
+                    result.get(i).getMostSignificantBits()) < 0);
+        }
+    }
+
+    @Test
+    void generateId_ClockGoesBack_ReturnsIncreasingIds() {
+        //given
+        var instants = List.of(Instant.parse("2024-02-14T10:15:30.123Z"), Instant.parse("2024-02-14T10:15:29.000Z"));
+        var clock = new Clock() {
+            int calls;
+
+            @Override
+            public Instant instant() {
+                return instants.get(this.calls++);
+            }
+
+            @Override
+            public ZoneOffset getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+        };
+        var generator = new UuidV7Generator(clock);
+
+        //when
+        var first = generator.generateId();
+        var second = generator.generateId();
+
+        //then
+        assertTrue(Long.compareUnsigned(first.getMostSignificantBits(), second.getMostSignificantBits()) < 0);
+    }
+
+    @Test
+    void generateId_ConcurrentCalls_ReturnsUniqueIds() {
+        //given
+        var generator = new UuidV7Generator();
+        Set<UUID> ids = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+        //when
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            IntStream.range(0, 8).forEach(i -> executor.submit(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    ids.add(generator.generateId());
+                }
+            }));
+        }
+
+        //then
+        assertEquals(80_000, ids.size());
+    }
+}
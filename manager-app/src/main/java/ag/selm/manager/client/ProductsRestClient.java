@@ -1,13 +1,16 @@
 package ag.selm.manager.client;
 
 import ag.selm.manager.entity.Product;
+import ag.selm.manager.entity.ProductsCount;
+import ag.selm.manager.entity.ProductsPage;
 
 import java.util.Optional;
-import java.util.List;
 
 public interface ProductsRestClient {
 
-    List<Product> findAllProducts(String filter);
+    ProductsPage findProductsPage(String filter, Integer after);
+
+    ProductsCount countProducts(String filter);
 
     Product createProduct(String title, String details);
 
@@ -3,10 +3,14 @@ package ag.selm.manager.client;
 import ag.selm.manager.controller.payload.NewProductPayload;
 import ag.selm.manager.controller.payload.UpdateProductPayload;
 import ag.selm.manager.entity.Product;
+import ag.selm.manager.entity.ProductsCount;
+import ag.selm.manager.entity.ProductsPage;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
 
@@ -22,14 +26,51 @@ public class RestClientProductsRestClient implements ProductsRestClient {
     private static final ParameterizedTypeReference<List<Product>> PRODUCTS_TYPE_REFERENCE =
             new ParameterizedTypeReference<>() {};
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final int MAX_CACHED_RESPONSES = 256;
+
     private final RestClient restClient;
 
+    private final ETagCache<String, ProductsPage> pagesCache = new ETagCache<>(MAX_CACHED_RESPONSES);
+
+    private final ETagCache<Integer, Product> productsCache = new ETagCache<>(MAX_CACHED_RESPONSES);
+
     @Override
-    public List<Product> findAllProducts(String filter) {
+    public ProductsPage findProductsPage(String filter, Integer after) {
+        String key = "%s|%s".formatted(filter, after);
+        ETagCache.Entry<ProductsPage> cached = this.pagesCache.get(key);
+        ResponseEntity<List<Product>> response = this.restClient
+                .get()
+                //списку нужны только id и title, описание товара каталог в кратком представлении не передает
+                .uri("/catalogue-api/products?view=summary&filter={filter}&after={after}", filter, after)
+                .headers(headers -> {
+                    if (cached != null) {
+                        headers.setIfNoneMatch(cached.eTag());
+                    }
+                })
+                .retrieve().toEntity(PRODUCTS_TYPE_REFERENCE);//тело ответа преобразовать к такому типу
+
+        //каталог не изменился - используем ранее полученную страницу
+        if (cached != null && response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            return cached.body();
+        }
+
+        //каталог отдает идентификатор следующей страницы в заголовке, если страница заполнена полностью
+        String nextCursor = response.getHeaders().getFirst(NEXT_CURSOR_HEADER);
+        ProductsPage page = new ProductsPage(response.getBody(),
+                nextCursor == null ? null : Integer.valueOf(nextCursor));
+        this.pagesCache.put(key, response.getHeaders().getETag(), page);
+        return page;
+    }
+
+    @Override
+    public ProductsCount countProducts(String filter) {
         return this.restClient
                 .get()
-                .uri("/catalogue-api/products?filter={filter}", filter)
-                .retrieve().body(PRODUCTS_TYPE_REFERENCE);//тело ответа преобразовать к такому типу
+                //для больших выборок каталог возвращает оценку, точный count(*) по ним слишком дорог
+                .uri("/catalogue-api/products/count?filter={filter}&mode=AUTO", filter)
+                .retrieve().body(ProductsCount.class);
     }
 
     @Override
@@ -49,11 +90,25 @@ public class RestClientProductsRestClient implements ProductsRestClient {
 
     @Override
     public Optional<Product> findProduct(int productId) {
+        ETagCache.Entry<Product> cached = this.productsCache.get(productId);
         try{
-            return Optional.ofNullable(this.restClient
+            ResponseEntity<Product> response = this.restClient
                     .get()
                     .uri("/catalogue-api/products/{productId}", productId)
-                    .retrieve().body(Product.class));
+                    .headers(headers -> {
+                        if (cached != null) {
+                            headers.setIfNoneMatch(cached.eTag());
+                        }
+                    })
+                    .retrieve().toEntity(Product.class);
+
+            //товар не изменился - используем ранее полученное тело
+            if (cached != null && response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                return Optional.of(cached.body());
+            }
+
+            this.productsCache.put(productId, response.getHeaders().getETag(), response.getBody());
+            return Optional.ofNullable(response.getBody());
         }catch (HttpClientErrorException.NotFound exception){
             return Optional.empty();
         }
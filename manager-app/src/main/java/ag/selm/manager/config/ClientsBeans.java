@@ -2,14 +2,21 @@ package ag.selm.manager.config;
 
 import ag.selm.manager.client.RestClientProductsRestClient;
 import ag.selm.manager.security.OAuthClientHttpRequestInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
 import org.springframework.security.oauth2.client.web.DefaultOAuth2AuthorizedClientManager;
 import org.springframework.security.oauth2.client.web.OAuth2AuthorizedClientRepository;
 import org.springframework.web.client.RestClient;
 
+import java.net.http.HttpClient;
+import java.util.concurrent.Executor;
+
 @Configuration
 public class ClientsBeans {
 
@@ -18,8 +25,22 @@ public class ClientsBeans {
             @Value("${selmag.services.catalogue.uri:http://localhost:8081}") String catalogueBaseUri,
             ClientRegistrationRepository clientRegistrationRepository,
             OAuth2AuthorizedClientRepository authorizedClientRepository,
-            @Value("${selmag.services.catalogue.registration-id:keycloak}") String registrationId) {
+            @Value("${selmag.services.catalogue.registration-id:keycloak}") String registrationId,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreadsEnabled,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+            ObjectProvider<Executor> applicationTaskExecutor) {
+        var httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1);
+        if (virtualThreadsEnabled) {
+            //внутренние задачи HttpClient (чтение ответа, таймауты) выполняются в виртуальных потоках
+            //applicationTaskExecutor, а не в его собственном пуле платформенных потоков;
+            //исполнитель принадлежит контексту и закрывается вместе с ним
+            applicationTaskExecutor.ifAvailable(httpClient::executor);
+        }
+
         return new RestClientProductsRestClient(RestClient.builder()
+                //поток запроса, ожидающий ответ каталога, блокируется без захвата монитора
+                //и в режиме виртуальных потоков освобождает поток-носитель
+                .requestFactory(new JdkClientHttpRequestFactory(httpClient.build()))
                 .baseUrl(catalogueBaseUri)
                 //будет обращение к классам, которые задействованы для получения аунтефикации/авторизации в Oauth в Keycloak
                 //при тестах нужно замокать см TestingBeans
@@ -4,6 +4,7 @@ import ag.selm.manager.client.BadRequestException;
 import ag.selm.manager.client.ProductsRestClient;
 import ag.selm.manager.controller.payload.NewProductPayload;
 import ag.selm.manager.entity.Product;
+import ag.selm.manager.entity.ProductsPage;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.LoggerFactory;
@@ -26,10 +27,14 @@ public class ProductsController {
 
     @GetMapping("list")
     public String getProductsList(Model model, @RequestParam(name = "filter", required = false) String filter,
+                                  @RequestParam(name = "after", required = false) Integer after,
                                   Principal principal) {
         LoggerFactory.getLogger(ProductsController.class).info("User: {}", principal);
 
-        model.addAttribute("products", this.productsRestClient.findAllProducts(filter));
+        ProductsPage page = this.productsRestClient.findProductsPage(filter, after);
+        model.addAttribute("products", page.products());
+        model.addAttribute("nextCursor", page.nextCursor());
+        model.addAttribute("productsCount", this.productsRestClient.countProducts(filter));
         model.addAttribute("filter", filter);
         return "catalogue/products/list";
     }
@@ -0,0 +1,5 @@
+package ag.selm.manager.entity;
+
+//exact = false - оценка каталога по статистике базы данных, в списке выводится как "~count"
+public record ProductsCount(long count, boolean exact) {
+}
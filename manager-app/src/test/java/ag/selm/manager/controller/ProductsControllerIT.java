@@ -2,6 +2,7 @@ package ag.selm.manager.controller;
 
 import ag.selm.manager.controller.payload.NewProductPayload;
 import ag.selm.manager.entity.Product;
+import ag.selm.manager.entity.ProductsCount;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.junit5.WireMockTest;
 import org.junit.jupiter.api.Test;
@@ -47,7 +48,12 @@ class ProductsControllerIT {
                             {"id": 1, "title": "Товар №1", "details": "Описание товара №1"},
                             {"id": 2, "title": "Товар №2", "details": "Описание товара №2"}
                         ]
-                        """).withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)));
+                        """).withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withHeader("X-Next-Cursor", "2")));
+        WireMock.stubFor(WireMock.get(WireMock.urlPathMatching("/catalogue-api/products/count"))
+                .withQueryParam("filter", WireMock.equalTo("товар"))
+                .willReturn(WireMock.okJson("""
+                        {"count": 2, "exact": true}""")));
 
         //when
         this.mockMvc.perform(requestBuilder)
@@ -58,6 +64,8 @@ class ProductsControllerIT {
                         status().isOk(),
                         view().name("catalogue/products/list"),
                         model().attribute("filter", "товар"),
+                        model().attribute("nextCursor", 2),
+                        model().attribute("productsCount", new ProductsCount(2, true)),
                         model().attribute("products", List.of(
                                     new Product(1, "Товар №1", "Описание товара №1"),
                                     new Product(2, "Товар №2", "Описание товара №2")
@@ -68,7 +76,10 @@ class ProductsControllerIT {
         //Можно провалидировать, что вызов данного метода у нас был
         //getRequestedFor-GET-запрос "/catalogue-api/products"
         WireMock.verify(WireMock.getRequestedFor(WireMock.urlPathMatching("/catalogue-api/products"))
+                .withQueryParam("view", WireMock.equalTo("summary"))
                 .withQueryParam("filter", WireMock.equalTo("товар")));
+        WireMock.verify(WireMock.getRequestedFor(WireMock.urlPathMatching("/catalogue-api/products/count"))
+                .withQueryParam("mode", WireMock.equalTo("AUTO")));
     }
 
     @Test
@@ -4,6 +4,8 @@ import ag.selm.manager.client.BadRequestException;
 import ag.selm.manager.client.ProductsRestClient;
 import ag.selm.manager.controller.payload.NewProductPayload;
 import ag.selm.manager.entity.Product;
+import ag.selm.manager.entity.ProductsCount;
+import ag.selm.manager.entity.ProductsPage;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -56,16 +58,20 @@ class ProductsControllerTest {
                         "Описание товара №%d".formatted(i)))
                 .toList();
 
-        doReturn(products)
-            .when(productsRestClient).findAllProducts(filter);
+        doReturn(new ProductsPage(products, 3))
+            .when(productsRestClient).findProductsPage(filter, null);
+        doReturn(new ProductsCount(12_000, false))
+            .when(productsRestClient).countProducts(filter);
 
         //when
-        var result = this.controller.getProductsList(model, filter, principal);
+        var result = this.controller.getProductsList(model, filter, null, principal);
 
         //then
         assertEquals("catalogue/products/list", result);
         assertEquals(filter, model.getAttribute("filter"));
         assertEquals(products, model.getAttribute("products"));
+        assertEquals(3, model.getAttribute("nextCursor"));
+        assertEquals(new ProductsCount(12_000, false), model.getAttribute("productsCount"));
     }
 
     @Test